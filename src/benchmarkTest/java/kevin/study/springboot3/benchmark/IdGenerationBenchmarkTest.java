@@ -0,0 +1,88 @@
+package kevin.study.springboot3.benchmark;
+
+import jakarta.persistence.EntityManager;
+import kevin.study.springboot3.blog.domain.Article;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntFunction;
+
+/**
+ * id 생성 전략별 insert 처리량 비교 (./gradlew benchmarkTest 로 실행, 일반 test 에서는 제외)
+ * - IDENTITY : 엔티티마다 INSERT 를 바로 실행해서 id 를 받아온다. (jdbc batch 불가)
+ * - 시퀀스(pooled-lo) : id 를 미리 받아두고 flush 시점에 INSERT 를 batch 로 보낸다.
+ * 양쪽 모두 글 + 본문 테이블에 INSERT 2번씩 하는 같은 구조다. (Article/ArticleBody, IdentityArticle/IdentityArticleBody)
+ * 행 수는 -Dbenchmark.rows=50000 처럼 바꿀 수 있다. 결과는 로그로 남긴다.
+ */
+@Slf4j
+@SpringBootTest
+class IdGenerationBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int CHUNK_SIZE = 1_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("delete from IdentityArticleBody").executeUpdate();
+            entityManager.createQuery("delete from IdentityArticle").executeUpdate();
+            entityManager.createQuery("delete from Article a where a.author = 'benchmark'").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("IDENTITY vs 시퀀스(pooled-lo) insert 처리량 비교")
+    void compareInsertThroughput() {
+        //warm up
+        insert(CHUNK_SIZE, this::identityArticle);
+        insert(CHUNK_SIZE, this::sequenceArticle);
+
+        double identity = insert(ROWS, this::identityArticle);
+        double sequence = insert(ROWS, this::sequenceArticle);
+
+        log.info("insert {} articles (article + body) : IDENTITY {} rows/s, sequence(pooled-lo) {} rows/s (x{})",
+                ROWS, String.format("%,.0f", identity), String.format("%,.0f", sequence),
+                String.format("%.2f", sequence / identity));
+    }
+
+    //CHUNK_SIZE 개씩 트랜잭션을 나눠서 persist 후 처리량(rows/s) 반환
+    private double insert(int rows, IntFunction<Object> entityFactory) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int offset = 0; offset < rows; offset += CHUNK_SIZE) {
+            int from = offset;
+            int to = Math.min(rows, offset + CHUNK_SIZE);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < to; i++) {
+                    entityManager.persist(entityFactory.apply(i));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return rows / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private Object identityArticle(int i) {
+        return new IdentityArticle("제목" + i, "내용" + i, "benchmark");
+    }
+
+    private Object sequenceArticle(int i) {
+        return Article.builder()
+                      .title("제목" + i)
+                      .content("내용" + i)
+                      .author("benchmark")
+                      .build();
+    }
+}
@@ -0,0 +1,32 @@
+package kevin.study.springboot3.benchmark;
+
+import jakarta.persistence.*;
+
+/**
+ * IdGenerationBenchmarkTest 비교용 엔티티 (예전 Article 과 같은 IDENTITY 전략)
+ * Article 과 같게 본문은 별도 테이블(identity_article_body)에 저장한다. (글 하나에 INSERT 2번)
+ * benchmarkTest 소스셋에만 있으므로 운영 스키마와 일반 test 의 스키마에는 만들어지지 않는다.
+ */
+@Entity
+@Table(name = "identity_article")
+public class IdentityArticle {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String title;
+
+    private String author;
+
+    @OneToOne(mappedBy = "article", fetch = FetchType.LAZY, cascade = CascadeType.ALL, optional = false)
+    private IdentityArticleBody body;
+
+    protected IdentityArticle() {
+    }
+
+    public IdentityArticle(String title, String content, String author) {
+        this.title = title;
+        this.author = author;
+        this.body = new IdentityArticleBody(this, content);
+    }
+}
@@ -0,0 +1,32 @@
+package kevin.study.springboot3.benchmark;
+
+import jakarta.persistence.*;
+import kevin.study.springboot3.config.jpa.CompressedTextConverter;
+
+/**
+ * IdentityArticle 의 본문 (ArticleBody 와 같은 구조 : 글 id 를 PK 로 쓰고, 본문은 압축 LOB)
+ */
+@Entity
+@Table(name = "identity_article_body")
+public class IdentityArticleBody {
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "article_id")
+    private IdentityArticle article;
+
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content", nullable = false)
+    private String content;
+
+    protected IdentityArticleBody() {
+    }
+
+    IdentityArticleBody(IdentityArticle article, String content) {
+        this.article = article;
+        this.content = content;
+    }
+}
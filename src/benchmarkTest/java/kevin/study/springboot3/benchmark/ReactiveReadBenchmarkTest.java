@@ -0,0 +1,141 @@
+package kevin.study.springboot3.benchmark;
+
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import kevin.study.springboot3.config.ReactiveReadServer;
+import kevin.study.springboot3.config.jwt.JwtFactory;
+import kevin.study.springboot3.user.config.jwt.JwtProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 단건 조회 blocking(톰캣 + MVC + JPA) vs 리액티브(Netty + WebFlux + R2DBC, ReactiveReadServer) 비교
+ * (./gradlew benchmarkTest 로 실행, 일반 test 에서는 제외)
+ * 동시에 benchmark.concurrency 개의 요청을 유지하면서 benchmark.requests 건을 보내고 처리량과 p50/p99 응답시간을 출력한다.
+ *
+ * 결과를 볼 때 주의할 점
+ * - H2 는 JVM 안에서 동작하는 blocking DB 라서 r2dbc-h2 도 내부적으로는 blocking 호출이다.
+ *   DB 대기시간이 없으므로 리액티브 쪽의 이점(대기 중 스레드 반납)이 거의 드러나지 않는다.
+ * - blocking 쪽 /api/article/{id} 는 로컬 캐시(Caffeine)를 거친다. 라운드 시작 전에 캐시를 비우지만 라운드 중에는 캐시 hit 가 난다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.reactive.enabled=true", "app.reactive.port=0"})
+class ReactiveReadBenchmarkTest {
+    private static final int ARTICLES = Integer.getInteger("benchmark.rows", 1_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private List<Long> ids;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = JwtFactory.withDefaultValue().createToken(jwtProperties);
+        List<Article> articles = IntStream.range(0, ARTICLES)
+                                          .mapToObj(i -> Article.builder()
+                                                                .title("제목" + i)
+                                                                .content("내용" + i)
+                                                                .author("benchmark")
+                                                                .build())
+                                          .toList();
+        ids = blogRepository.saveAll(articles)
+                            .stream()
+                            .map(Article::getId)
+                            .toList();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        blogRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Test
+    @DisplayName("단건 조회 blocking vs 리액티브 처리량 비교")
+    void compareFindArticle() {
+        String blocking = "http://localhost:" + port + "/api/article/";
+        String reactive = "http://localhost:" + reactiveReadServer.getPort() + "/api/reactive/article/";
+        //warm up
+        run(blocking, REQUESTS / 10);
+        run(reactive, REQUESTS / 10);
+
+        System.out.printf("GET article x %d (concurrency %d)%n", REQUESTS, CONCURRENCY);
+        print("blocking (Tomcat + MVC + JPA)    ", run(blocking, REQUESTS));
+        print("reactive (Netty + WebFlux + R2DBC)", run(reactive, REQUESTS));
+    }
+
+    //요청별 응답시간(ns)과 전체 소요시간(ns, 마지막 원소)을 반환
+    private long[] run(String baseUrl, int requests) {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[requests + 1];
+        List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquireUninterruptibly();
+            int index = i;
+            long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                                             .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                             .GET()
+                                             .build();
+            long sent = System.nanoTime();
+            futures.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                                  .whenComplete((response, e) -> {
+                                      latencies[index] = System.nanoTime() - sent;
+                                      inFlight.release();
+                                  }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        latencies[requests] = System.nanoTime() - start;
+        return latencies;
+    }
+
+    private static void print(String name, long[] result) {
+        int requests = result.length - 1;
+        long elapsed = result[requests];
+        long[] latencies = Arrays.copyOf(result, requests);
+        Arrays.sort(latencies);
+        System.out.printf("  %s : %,.0f req/s, p50 %.2f ms, p99 %.2f ms%n", name,
+                requests / (elapsed / 1_000_000_000.0),
+                latencies[requests / 2] / 1_000_000.0,
+                latencies[(int) (requests * 0.99)] / 1_000_000.0);
+    }
+}
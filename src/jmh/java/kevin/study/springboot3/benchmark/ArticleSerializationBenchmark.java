@@ -0,0 +1,64 @@
+package kevin.study.springboot3.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티 -> ArticleResponse 변환과 목록 JSON 직렬화 비용
+ * ObjectMapper 는 스프링부트 기본 설정과 같은 모듈(JavaTimeModule 등)로 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArticleSerializationBenchmark {
+    //목록 한 페이지 크기 (BlogService.DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE)
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Article> articles;
+    private List<ArticleResponse> responses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        articles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            articles.add(Article.builder()
+                                .title("스프링부트3 글 제목 " + i)
+                                .content("본문 내용입니다. ".repeat(40) + i)
+                                .author("user" + i + "@gmail.com")
+                                .build());
+        }
+        responses = toResponses();
+    }
+
+    @Benchmark
+    public List<ArticleResponse> toResponses() {
+        List<ArticleResponse> result = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            result.add(new ArticleResponse(article));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
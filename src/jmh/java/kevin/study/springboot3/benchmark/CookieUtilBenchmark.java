@@ -0,0 +1,53 @@
+package kevin.study.springboot3.benchmark;
+
+import jakarta.servlet.http.Cookie;
+import kevin.study.springboot3.user.config.oauth.OAuth2AuthorizationRequestBasedOnCookieRepository;
+import kevin.study.springboot3.util.CookieUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth2 로그인시 인가 요청을 쿠키에 저장/복원하는 비용 (자바 직렬화 + base64)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CookieUtilBenchmark {
+    private OAuth2AuthorizationRequest authorizationRequest;
+    private Cookie cookie;
+
+    @Setup
+    public void setUp() {
+        authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                                                         .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                                                         .clientId("benchmark-client-id.apps.googleusercontent.com")
+                                                         .redirectUri("http://localhost:8080/login/oauth2/code/google")
+                                                         .scopes(Set.of("email", "profile"))
+                                                         .state("6a0b1c2d-3e4f-5a6b-7c8d-9e0f1a2b3c4d")
+                                                         .attributes(Map.of(OAuth2ParameterNames.REGISTRATION_ID, "google"))
+                                                         .build();
+        cookie = new Cookie(OAuth2AuthorizationRequestBasedOnCookieRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
+                CookieUtil.serialize(authorizationRequest));
+    }
+
+    @Benchmark
+    public String serialize() {
+        return CookieUtil.serialize(authorizationRequest);
+    }
+
+    @Benchmark
+    public OAuth2AuthorizationRequest deserialize() {
+        return CookieUtil.deserialize(cookie, OAuth2AuthorizationRequest.class);
+    }
+}
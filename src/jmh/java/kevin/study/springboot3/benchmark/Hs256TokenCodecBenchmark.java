@@ -0,0 +1,74 @@
+package kevin.study.springboot3.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import kevin.study.springboot3.user.config.jwt.Hs256TokenCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * jjwt 0.9.1 과 Hs256TokenCodec 의 토큰 생성, 검증 비교 (같은 키, 같은 클레임)
+ * 할당량은 gc 프로파일러의 gc.alloc.rate.norm (B/op) 으로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Hs256TokenCodecBenchmark {
+    private byte[] signingKey;
+    private Hs256TokenCodec codec;
+    private Date issuedAt;
+    private Date expiration;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        signingKey = TextCodec.BASE64.decode(TokenProviderBenchmark.SECRET_KEY);
+        codec = new Hs256TokenCodec(signingKey);
+        issuedAt = new Date();
+        expiration = new Date(issuedAt.getTime() + Duration.ofDays(1).toMillis());
+        token = codec.encode(TokenProviderBenchmark.ISSUER, issuedAt, expiration, "user@gmail.com", 1L);
+    }
+
+    @Benchmark
+    public String jjwtEncode() {
+        return Jwts.builder()
+                   .setHeaderParam(Header.TYPE, Header.JWT_TYPE)
+                   .setIssuer(TokenProviderBenchmark.ISSUER)
+                   .setIssuedAt(issuedAt)
+                   .setExpiration(expiration)
+                   .setSubject("user@gmail.com")
+                   .claim("id", 1L)
+                   .signWith(SignatureAlgorithm.HS256, signingKey)
+                   .compact();
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(TokenProviderBenchmark.ISSUER, issuedAt, expiration, "user@gmail.com", 1L);
+    }
+
+    @Benchmark
+    public Claims jjwtDecode() {
+        return Jwts.parser()
+                   .setSigningKey(signingKey)
+                   .parseClaimsJws(token)
+                   .getBody();
+    }
+
+    @Benchmark
+    public Claims codecDecode() {
+        return codec.decode(token, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,46 @@
+package kevin.study.springboot3.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원가입(UserService.save)의 비밀번호 해시 비용
+ * UserService.save 는 호출마다 BCryptPasswordEncoder 를 새로 만든다. (생성시 SecureRandom 초기화)
+ * 해시 1번이 수십 ms 라 호출당 평균 시간으로 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PasswordEncoderBenchmark {
+    private static final String PASSWORD = "benchmark-password";
+
+    private BCryptPasswordEncoder sharedEncoder;
+
+    @Setup
+    public void setUp() {
+        sharedEncoder = new BCryptPasswordEncoder();
+    }
+
+    //UserService.save 와 같은 방식
+    @Benchmark
+    public String encodeWithNewEncoder() {
+        return new BCryptPasswordEncoder().encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encodeWithSharedEncoder() {
+        return sharedEncoder.encode(PASSWORD);
+    }
+}
@@ -0,0 +1,72 @@
+package kevin.study.springboot3.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import kevin.study.springboot3.user.config.jwt.TokenAuthenticationFilter;
+import kevin.study.springboot3.user.config.jwt.TokenProvider;
+import kevin.study.springboot3.user.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인증이 필요한 요청마다 거치는 TokenAuthenticationFilter 처리량 (Authorization 헤더 -> SecurityContext)
+ * 요청/응답 객체는 매번 새로 만든다. (실제 요청처럼 OncePerRequestFilter 의 중복 실행 확인 속성이 없는 상태)
+ *
+ * registry 별로 메트릭 기록 비용을 비교한다.
+ * - noop : 하위 registry 가 없는 CompositeMeterRegistry (meter 가 아무것도 기록하지 않음)
+ * - simple : 실제로 timer, counter 를 기록 (운영의 Prometheus registry 와 같은 방식)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenAuthenticationFilterBenchmark {
+    @Param({"noop", "simple"})
+    public String registry;
+
+    private TokenAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        TokenProvider tokenProvider = new TokenProvider(TokenProviderBenchmark.ISSUER, TokenProviderBenchmark.SECRET_KEY);
+        MeterRegistry meterRegistry = "simple".equals(registry) ? new SimpleMeterRegistry() : new CompositeMeterRegistry();
+        filter = new TokenAuthenticationFilter(tokenProvider, meterRegistry, request -> false); //Authorization 헤더만 사용
+        String token = tokenProvider.generateToken(User.builder()
+                                                       .id(1L)
+                                                       .email("user@gmail.com")
+                                                       .password("password")
+                                                       .build(), Duration.ofDays(1));
+        authorization = "Bearer " + token;
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletRequest doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return request;
+    }
+}
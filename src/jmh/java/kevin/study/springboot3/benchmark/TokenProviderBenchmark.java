@@ -0,0 +1,71 @@
+package kevin.study.springboot3.benchmark;
+
+import kevin.study.springboot3.user.config.jwt.TokenProvider;
+import kevin.study.springboot3.user.config.jwt.TokenVerification;
+import kevin.study.springboot3.user.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 발급, 검증 처리량
+ * - validateAndAuthenticate : 이전 인증 필터 경로. validToken + getAuthentication (토큰을 두번 파싱, 서명 검증도 두번)
+ * - verifyUncached : verify 로 한번만 파싱, 검증 (캐시 없음, 처음 보는 토큰)
+ * - verifyCached : 같은 토큰으로 다시 요청한 경우 (digest 계산 + 캐시 조회만)
+ * 요청당 절약되는 시간은 validateAndAuthenticate 와 verifyCached 의 평균시간 차이로 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenProviderBenchmark {
+    static final String ISSUER = "benchmark@gmail.com";
+    static final String SECRET_KEY = "study-springboot";
+
+    private TokenProvider tokenProvider;
+    private TokenProvider uncachedTokenProvider;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider(ISSUER, SECRET_KEY);
+        uncachedTokenProvider = new TokenProvider(ISSUER, SECRET_KEY, 0);
+        user = User.builder()
+                   .id(1L)
+                   .email("user@gmail.com")
+                   .password("password")
+                   .build();
+        token = tokenProvider.generateToken(user, Duration.ofDays(1));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(user, Duration.ofHours(2));
+    }
+
+    @Benchmark
+    public Authentication validateAndAuthenticate() {
+        if (!uncachedTokenProvider.validToken(token)) {
+            throw new IllegalStateException("invalid token");
+        }
+        return uncachedTokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public TokenVerification verifyUncached() {
+        return uncachedTokenProvider.verify(token);
+    }
+
+    @Benchmark
+    public TokenVerification verifyCached() {
+        return tokenProvider.verify(token);
+    }
+}
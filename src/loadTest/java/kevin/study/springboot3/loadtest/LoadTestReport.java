@@ -0,0 +1,118 @@
+package kevin.study.springboot3.loadtest;
+
+import kevin.study.springboot3.loadtest.LoadTestSettings.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 부하 테스트 1회 결과
+ * 실행마다 loadtest-yyyyMMdd-HHmmss.txt (요약) 과 .hlog (요청 종류별 히스토그램, tag = 요청 종류) 를 만든다.
+ * 요약은 항상 같은 형식이라 실행 결과끼리 diff 로 비교할 수 있다. (응답시간 단위 ms)
+ * timedOut : 측정이 끝난 뒤 drain 마감까지 응답이 없던 요청 수 (errors 에 포함, 응답시간은 마감 시각까지)
+ */
+class LoadTestReport {
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestSettings settings;
+    private final Map<Operation, Result> results;
+    private final int maxInFlight;
+    private final Duration maxSchedulerLag;
+    private final long timedOut;
+    private final LocalDateTime finishedAt = LocalDateTime.now();
+
+    LoadTestReport(LoadTestSettings settings, Map<Operation, Result> results, int maxInFlight, Duration maxSchedulerLag,
+                   long timedOut) {
+        this.settings = settings;
+        this.results = results;
+        this.maxInFlight = maxInFlight;
+        this.maxSchedulerLag = maxSchedulerLag;
+        this.timedOut = timedOut;
+    }
+
+    //요약과 히스토그램 로그를 저장하고 요약 파일 경로를 반환한다.
+    Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String name = "loadtest-" + finishedAt.format(FILE_NAME_FORMAT);
+        Path summaryFile = directory.resolve(name + ".txt");
+        Files.writeString(summaryFile, summary(), StandardCharsets.UTF_8);
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hlog")), false,
+                StandardCharsets.UTF_8)) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("loadtest " + describeSettings());
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+                Histogram histogram = entry.getValue().histogram();
+                histogram.setTag(entry.getKey().name());
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+        return summaryFile;
+    }
+
+    String summary() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("# loadtest ").append(finishedAt).append('\n');
+        builder.append("# ").append(describeSettings()).append('\n');
+        builder.append("# java=").append(Runtime.version())
+               .append(" cpus=").append(Runtime.getRuntime().availableProcessors())
+               .append(" maxInFlight=").append(maxInFlight)
+               .append(" maxSchedulerLagMs=").append(maxSchedulerLag.toMillis())
+               .append(" timedOut=").append(timedOut).append('\n');
+        builder.append(String.format("%-26s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "skipped", "rate/s", "p50", "p90", "p99", "p999", "max"));
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalSkipped = 0;
+        for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            appendRow(builder, entry.getKey().description, result.histogram(), result.errors(), result.skipped());
+            total.add(result.histogram());
+            totalErrors += result.errors();
+            totalSkipped += result.skipped();
+        }
+        appendRow(builder, "ALL", total, totalErrors, totalSkipped);
+        return builder.toString();
+    }
+
+    private void appendRow(StringBuilder builder, String name, Histogram histogram, long errors, long skipped) {
+        builder.append(String.format("%-26s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, skipped,
+                histogram.getTotalCount() / (double) settings.duration().toSeconds(),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private String describeSettings() {
+        String mix = settings.mix()
+                             .entrySet()
+                             .stream()
+                             .map(entry -> entry.getKey().name().toLowerCase() + "=" + entry.getValue())
+                             .collect(Collectors.joining(","));
+        return "rate=" + settings.rate() + "/s duration=" + settings.duration().toSeconds() + "s"
+                + " warmup=" + settings.warmup().toSeconds() + "s users=" + settings.users()
+                + " articles=" + settings.articles() + " mix=" + mix;
+    }
+
+    //요청 종류별 응답시간 (us), 실패 수, 건너뛴 수
+    record Result(Histogram histogram, long errors, long skipped) {
+    }
+}
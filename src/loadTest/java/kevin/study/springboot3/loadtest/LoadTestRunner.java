@@ -0,0 +1,320 @@
+package kevin.study.springboot3.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kevin.study.springboot3.Springboot3Application;
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import kevin.study.springboot3.loadtest.LoadTestSettings.Operation;
+import kevin.study.springboot3.user.config.jwt.TokenProvider;
+import kevin.study.springboot3.user.domain.RefreshToken;
+import kevin.study.springboot3.user.domain.User;
+import kevin.study.springboot3.user.repository.RefreshTokenRepository;
+import kevin.study.springboot3.user.repository.UserRepository;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 전체 요청 경로 부하 테스트 (./gradlew loadTest)
+ *
+ * 1. 애플리케이션을 로컬 H2 로 띄운다. (랜덤 포트)
+ * 2. 유저, 리프레시 토큰, 글을 시드하고 TokenProvider 로 액세스 토큰을 발급한다.
+ * 3. 설정한 비율(loadtest.mix)로 요청 종류를 골라서 일정한 간격(초당 loadtest.rate 건)으로 요청을 시작한다.
+ *
+ * open model : 이전 요청의 응답을 기다리지 않고 정해진 시각에 다음 요청을 보낸다. (비동기 HttpClient)
+ * 응답시간은 요청을 보낸 시각이 아니라 보내기로 예정된 시각부터 잰다.
+ * 서버가 느려져서 (또는 부하 생성기가 밀려서) 요청이 늦게 나간 만큼도 응답시간에 포함되므로
+ * coordinated omission 으로 p99 이상이 실제보다 작게 나오는 문제가 없다.
+ *
+ * 결과는 요청 종류별 HdrHistogram 으로 기록하고 실행할 때마다 build/reports/loadtest 에
+ * 요약(.txt)과 히스토그램 로그(.hlog, HistogramLogProcessor 등으로 비교)를 남긴다.
+ */
+public class LoadTestRunner {
+    //응답시간 기록 정밀도 (유효숫자 3자리)
+    private static final int SIGNIFICANT_DIGITS = 3;
+    //측정이 끝난 뒤 남은 요청을 기다리는 최대 시간
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    private final URI baseUri;
+    private final List<SeedUser> users;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+                                                    .version(HttpClient.Version.HTTP_1_1)
+                                                    .connectTimeout(Duration.ofSeconds(5))
+                                                    .build();
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> skipped = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    //응답을 기다리는 요청 (요청 번호 -> 요청). 응답과 drain 마감 중 먼저 꺼낸 쪽이 한번만 기록한다.
+    private final Map<Long, PendingRequest> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Operation[] weightedOperations;
+
+    LoadTestRunner(LoadTestSettings settings, int port, List<SeedUser> users, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.baseUri = URI.create("http://localhost:" + port);
+        this.users = users;
+        this.objectMapper = objectMapper;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            errors.put(operation, new AtomicLong());
+            skipped.put(operation, new AtomicLong());
+        }
+        List<Operation> weighted = new ArrayList<>();
+        settings.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.weightedOperations = weighted.toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"));
+
+        try (ConfigurableApplicationContext context = start(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<SeedUser> users = seed(context, settings);
+
+            LoadTestReport report = new LoadTestRunner(settings, port, users, context.getBean(ObjectMapper.class)).run();
+            Path file = report.write(reportDir);
+            System.out.println(report.summary());
+            System.out.println("report : " + file.toAbsolutePath());
+        }
+    }
+
+    //application.yml 이 없어도 뜰 수 있도록 필요한 값은 기본값으로 넣어둔다. (설정이 있으면 설정값 사용)
+    private static ConfigurableApplicationContext start(String[] args) {
+        SpringApplication application = new SpringApplication(Springboot3Application.class);
+        application.setDefaultProperties(Map.of(
+                "jwt.issuer", "loadtest@gmail.com",
+                "jwt.secretKey", "loadtest-secret-key",
+                "spring.security.oauth2.client.registration.google.client-id", "loadtest",
+                "spring.security.oauth2.client.registration.google.client-secret", "loadtest",
+                "spring.security.oauth2.client.registration.google.scope", "email,profile",
+                "spring.jpa.defer-datasource-initialization", "true", //data.sql 은 스키마 생성 이후에 실행
+                "spring.h2.console.enabled", "true", //시큐리티 설정이 h2 console 경로를 사용
+                "logging.level.root", "WARN"));
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=0");
+        return application.run(arguments.toArray(String[]::new));
+    }
+
+    //유저마다 액세스/리프레시 토큰과 글을 만든다. 절반은 조회/수정용, 절반은 삭제용
+    private static List<SeedUser> seed(ConfigurableApplicationContext context, LoadTestSettings settings) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        RefreshTokenRepository refreshTokenRepository = context.getBean(RefreshTokenRepository.class);
+        BlogRepository blogRepository = context.getBean(BlogRepository.class);
+        TokenProvider tokenProvider = context.getBean(TokenProvider.class);
+        Duration accessTokenLifetime = settings.warmup().plus(settings.duration()).plusHours(1);
+
+        List<SeedUser> users = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            User user = userRepository.save(User.builder()
+                                                .email("loadtest" + i + "@gmail.com")
+                                                .password("loadtest")
+                                                .build());
+            String refreshToken = tokenProvider.generateToken(user, Duration.ofDays(14));
+            refreshTokenRepository.save(new RefreshToken(user.getId(), refreshToken));
+
+            List<Article> articles = new ArrayList<>(settings.articles() * 2);
+            for (int j = 0; j < settings.articles() * 2; j++) {
+                articles.add(Article.builder()
+                                    .title("부하테스트 " + i + "-" + j)
+                                    .content("부하테스트 본문입니다. ".repeat(20))
+                                    .author(user.getEmail())
+                                    .build());
+            }
+            List<Article> saved = blogRepository.saveAll(articles);
+            List<Long> ids = saved.stream()
+                                  .map(Article::getId)
+                                  .toList();
+            Map<Long, Long> versions = new ConcurrentHashMap<>();
+            saved.forEach(article -> versions.put(article.getId(), article.getVersion()));
+            users.add(new SeedUser(tokenProvider.generateToken(user, accessTokenLifetime), refreshToken,
+                    ids.subList(0, settings.articles()),
+                    new ConcurrentLinkedQueue<>(ids.subList(settings.articles(), ids.size())), versions));
+        }
+        return users;
+    }
+
+    LoadTestReport run() throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        long maxSchedulerLag = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                maxSchedulerLag = Math.max(maxSchedulerLag, -wait);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            fire(weightedOperations[random.nextInt(weightedOperations.length)],
+                    users.get(random.nextInt(users.size())), intended, intended >= measureFrom);
+        }
+        long timedOut = awaitInFlight();
+
+        Map<Operation, LoadTestReport.Result> results = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            results.put(operation, new LoadTestReport.Result(recorders.get(operation).getIntervalHistogram(),
+                    errors.get(operation).get(), skipped.get(operation).get()));
+        }
+        return new LoadTestReport(settings, results, maxInFlight.get(), Duration.ofNanos(maxSchedulerLag), timedOut);
+    }
+
+    private void fire(Operation operation, SeedUser user, long intended, boolean measured) {
+        HttpRequest request = request(operation, user);
+        if (request == null) { //삭제할 글이 남아있지 않음
+            if (measured) {
+                skipped.get(operation).incrementAndGet();
+            }
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        pending.put(id, new PendingRequest(operation, intended, measured));
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                  .whenComplete((response, failure) -> {
+                      if (pending.remove(id) == null) { //drain 마감에서 이미 실패로 기록됨
+                          return;
+                      }
+                      try {
+                          long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                          //같은 글을 동시에 수정하면 version 이 먼저 바뀐 쪽 말고는 409 (서버가 정상 응답한 것이므로 에러가 아님)
+                          boolean conflict = failure == null && operation == Operation.UPDATE
+                                  && response.statusCode() == 409;
+                          boolean success = failure == null && response.statusCode() < 400;
+                          if (measured) {
+                              recorders.get(operation).recordValue(latencyMicros);
+                              if (!success && !conflict) {
+                                  errors.get(operation).incrementAndGet();
+                              }
+                          }
+                          if (success && operation == Operation.CREATE) {
+                              user.deletable().add(objectMapper.readTree(response.body()).get("id").asLong());
+                          }
+                          if (success && operation == Operation.UPDATE) {
+                              //응답이 늦게 도착해도 더 최신 version 을 덮어쓰지 않도록 큰 값을 유지한다.
+                              JsonNode article = objectMapper.readTree(response.body());
+                              user.versions().merge(article.get("id").asLong(), article.get("version").asLong(), Math::max);
+                          }
+                      } catch (IOException | RuntimeException e) {
+                          if (measured) {
+                              errors.get(operation).incrementAndGet();
+                          }
+                      } finally {
+                          inFlight.decrementAndGet();
+                      }
+                  });
+    }
+
+    private HttpRequest request(Operation operation, SeedUser user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long articleId = user.articleIds().get(random.nextInt(user.articleIds().size()));
+        return switch (operation) {
+            case LIST -> authorized(user, "/api/articles?limit=20").GET().build();
+            case GET -> authorized(user, "/api/article/" + articleId).GET().build();
+            case CREATE -> authorized(user, "/api/articles")
+                    .POST(json(Map.of("title", "부하테스트 글", "content", "부하테스트 본문입니다. ".repeat(20))))
+                    .build();
+            case UPDATE -> authorized(user, "/api/articles/" + articleId)
+                    .PUT(json(Map.of("title", "부하테스트 수정 " + random.nextInt(1000),
+                            "content", "부하테스트 수정 본문입니다. ".repeat(20),
+                            "version", user.versions().get(articleId))))
+                    .build();
+            case DELETE -> {
+                Long deletable = user.deletable().poll();
+                yield deletable == null ? null : authorized(user, "/api/articles/" + deletable).DELETE().build();
+            }
+            case TOKEN -> HttpRequest.newBuilder(baseUri.resolve("/api/token"))
+                                     .header("Content-Type", "application/json")
+                                     .POST(json(Map.of("refreshToken", user.refreshToken())))
+                                     .build();
+        };
+    }
+
+    private HttpRequest.Builder authorized(SeedUser user, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                          .header("Authorization", "Bearer " + user.accessToken())
+                          .header("Content-Type", "application/json")
+                          .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, ?> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    //남은 요청을 기다리고, 마감까지 응답이 없는 요청은 마감 시각까지의 응답시간으로 실패 기록한다. (그 수를 반환)
+    //기록하지 않고 버리면 가장 느린 요청들이 빠져서 p99 이상이 실제보다 작게 나온다.
+    private long awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long timedOut = 0;
+        long now = System.nanoTime();
+        for (Long id : pending.keySet()) {
+            PendingRequest request = pending.remove(id);
+            if (request == null) { //그 사이에 응답이 옴
+                continue;
+            }
+            inFlight.decrementAndGet();
+            if (request.measured()) {
+                recorders.get(request.operation())
+                         .recordValue(TimeUnit.NANOSECONDS.toMicros(now - request.intended()));
+                errors.get(request.operation()).incrementAndGet();
+                timedOut++;
+            }
+        }
+        return timedOut;
+    }
+
+    //응답을 기다리는 요청 : 요청 종류, 보내기로 예정된 시각, 측정 구간 여부
+    private record PendingRequest(Operation operation, long intended, boolean measured) {
+    }
+
+    //시드 유저 : 토큰, 조회/수정할 글 id, 삭제할 글 id (등록 요청으로 만든 글도 여기에 추가된다),
+    //수정할 글의 마지막으로 알고 있는 version (수정 요청에 필수, 수정 응답으로 갱신)
+    record SeedUser(String accessToken, String refreshToken, List<Long> articleIds, Queue<Long> deletable,
+                    Map<Long, Long> versions) {
+    }
+}
@@ -0,0 +1,66 @@
+package kevin.study.springboot3.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정 (-Dloadtest.xxx 로 지정, ./gradlew loadTest -Dloadtest.rate=500)
+ *
+ * @param rate     초당 요청 수 (응답 속도와 상관없이 이 간격으로 요청을 시작한다)
+ * @param duration 측정 시간
+ * @param warmup   측정 전 워밍업 시간 (결과에서 제외)
+ * @param users    시드 유저 수
+ * @param articles 유저별 시드 글 수
+ * @param mix      요청 종류별 비율 (예: list=40,get=40,create=5,update=5,delete=5,token=5)
+ */
+record LoadTestSettings(int rate, Duration duration, Duration warmup, int users, int articles,
+                        Map<Operation, Integer> mix) {
+    static final String DEFAULT_MIX = "list=40,get=40,create=5,update=5,delete=5,token=5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60L)),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10L)),
+                Integer.getInteger("loadtest.users", 20),
+                Integer.getInteger("loadtest.articles", 50),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)));
+    }
+
+    //"list=40,get=40" -> {LIST=40, GET=40}
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("invalid loadtest.mix entry : " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("negative loadtest.mix weight : " + entry);
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weight : " + value);
+        }
+        return mix;
+    }
+
+    //요청 종류
+    enum Operation {
+        LIST("GET /api/articles"),
+        GET("GET /api/article/{id}"),
+        CREATE("POST /api/articles"),
+        UPDATE("PUT /api/articles/{id}"),
+        DELETE("DELETE /api/articles/{id}"),
+        TOKEN("POST /api/token");
+
+        final String description;
+
+        Operation(String description) {
+            this.description = description;
+        }
+    }
+}
@@ -2,10 +2,16 @@ package kevin.study.springboot3;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+//R2DBC 는 읽기 전용 리액티브 API 에서만 직접 사용한다. (ReactiveConfig 참고)
+//자동설정을 켜두면 R2DBC 트랜잭션 매니저가 JPA 트랜잭션 매니저와 같이 등록되어 @Transactional 이 어느 쪽을 쓸지 결정하지 못한다.
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 @EnableJpaAuditing // create_at, updated_at 자동 업데이트 위해 추가필요
+@EnableScheduling // 조회수 주기적 DB 반영 (ArticleViewCounter)
 public class Springboot3Application {
 	public static void main(String[] args) {
 		SpringApplication.run(Springboot3Application.class, args);
@@ -1,22 +1,46 @@
 package kevin.study.springboot3.blog.controller;
 
 
+import jakarta.servlet.http.HttpServletRequest;
 import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleImportResponse;
+import kevin.study.springboot3.blog.dto.ArticlePageResponse;
 import kevin.study.springboot3.blog.dto.ArticleRequest;
 import kevin.study.springboot3.blog.dto.ArticleResponse;
+import kevin.study.springboot3.blog.dto.ArticleSearchResponse;
+import kevin.study.springboot3.blog.dto.ArticleSummaryResponse;
+import kevin.study.springboot3.blog.dto.ArticleTrendingResponse;
+import kevin.study.springboot3.blog.event.ArticleEventBroadcaster;
+import kevin.study.springboot3.blog.search.ArticleSearchIndex;
+import kevin.study.springboot3.blog.service.ArticleExportService;
+import kevin.study.springboot3.blog.service.ArticleImportService;
 import kevin.study.springboot3.blog.service.BlogService;
+import kevin.study.springboot3.blog.trending.TrendingArticleTracker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class BlogApiController {
     private final BlogService blogService;
+    private final ArticleExportService articleExportService;
+    private final ArticleImportService articleImportService;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final TrendingArticleTracker trendingArticleTracker;
+    private final ArticleEventBroadcaster articleEventBroadcaster;
 
     @PostMapping("/api/articles")
     public ResponseEntity<Article> addArticle(@RequestBody ArticleRequest request,
@@ -26,16 +50,81 @@ public class BlogApiController {
         //반환 타입을 ResponseEntity로 감싸서 reponse 의 httpStatus를 설정할 수 있다.
     }
 
+    //글 일괄등록. 본문은 JSON 배열 또는 NDJSON (요청 본문을 스트리밍으로 읽는다)
+    @PostMapping(value = "/api/articles/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ArticleImportResponse> importArticles(HttpServletRequest request,
+                                                                Principal principal) throws IOException {
+        return ResponseEntity.ok()
+                             .body(articleImportService.importFrom(request.getInputStream(), principal.getName()));
+    }
+
+    //cursor : 이전 응답의 nextCursor (없으면 첫 페이지), limit : 페이지 크기 (최대 100)
+    //author : 있으면 해당 작성자의 글만 최신순으로 조회
+    //목록은 페이지에 포함된 글의 (id, updatedAt) 으로 ETag 를 만든다.
+    //글이 삭제되어도 최대 수정시간은 바뀌지 않을 수 있으므로 Last-Modified 는 쓰지 않는다.
     @GetMapping("/api/articles")
-    public ResponseEntity<List<ArticleResponse>> findAllArticles() {
+    public ResponseEntity<ArticlePageResponse> findAllArticles(@RequestParam(required = false) String author,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               WebRequest webRequest) {
+        ArticlePageResponse page = blogService.findPage(author, cursor, limit);
+        if (webRequest.checkNotModified(pageEtag(page))) {
+            return null; //304 Not Modified (본문 직렬화 생략)
+        }
+        return ResponseEntity.ok()
+                             .body(page);
+    }
+
+    //제목, 본문 검색 (메모리 색인 사용, DB 조회 없음). limit 최대 100
+    @GetMapping("/api/articles/search")
+    public ResponseEntity<List<ArticleSearchResponse>> searchArticles(@RequestParam String q,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok()
+                             .body(articleSearchIndex.search(q, Math.min(limit, BlogService.MAX_PAGE_SIZE)));
+    }
+
+    //글 등록/수정/삭제 알림 (Server-Sent Events). 목록을 주기적으로 다시 조회하는 대신 구독한다.
+    //재접속시 브라우저가 보내는 Last-Event-ID 다음 이벤트부터 이어서 받는다. (resync 이벤트를 받으면 목록을 다시 조회)
+    //브라우저 EventSource 는 헤더를 보낼 수 없으므로 토큰을 ?access_token= 으로 보낸다. (TokenAuthenticationFilter)
+    @GetMapping(value = "/api/articles/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeArticleEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return articleEventBroadcaster.subscribe(lastEventId);
+    }
+
+    //최근 많이 읽힌 글 (DB 조회 없음, 제목은 검색 색인에서 가져온다). limit 최대 100
+    @GetMapping("/api/articles/trending")
+    public ResponseEntity<List<ArticleTrendingResponse>> findTrendingArticles(@RequestParam(defaultValue = "10") int limit) {
+        List<ArticleTrendingResponse> articles = new ArrayList<>();
+        for (TrendingArticleTracker.TrendingArticle trending :
+                trendingArticleTracker.top(Math.min(limit, BlogService.MAX_PAGE_SIZE))) {
+            articleSearchIndex.findTitle(trending.id())
+                              .ifPresent(title -> articles.add(new ArticleTrendingResponse(trending.id(), title, trending.score())));
+        }
+        return ResponseEntity.ok()
+                             .body(articles);
+    }
+
+    //전체 글을 NDJSON 으로 스트리밍 export (한줄에 글 하나)
+    //StreamingResponseBody 는 별도 스레드에서 실행되므로 트랜잭션도 그 안에서 시작된다.
+    @GetMapping("/api/articles/export")
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
         return ResponseEntity.ok()
-                             .body(blogService.findAll());
+                             .contentType(MediaType.APPLICATION_NDJSON)
+                             .body(articleExportService::exportTo);
     }
 
+    //If-None-Match 가 현재 글과 같으면 304 를 반환한다.
+    //ETag 는 캐시된 응답(ArticleResponse)으로 만들기 때문에 캐시 hit 이면 DB 를 조회하지 않는다.
     @GetMapping("/api/article/{id}")
-    public ResponseEntity<ArticleResponse> findArticle(@PathVariable Long id) {
+    public ResponseEntity<ArticleResponse> findArticle(@PathVariable Long id, WebRequest webRequest) {
+        ArticleResponse article = blogService.findById(id);
+        trendingArticleTracker.record(id); //304 도 조회로 집계한다.
+        if (webRequest.checkNotModified(articleEtag(article))) {
+            return null; //304 Not Modified
+        }
         return ResponseEntity.ok()
-                             .body(blogService.findById(id));
+                             .body(article);
     }
 
     @DeleteMapping("/api/articles/{id}")
@@ -51,4 +140,19 @@ public class BlogApiController {
         return ResponseEntity.ok()
                              .body(blogService.update(id, request));
     }
+
+    //단건 ETag : "id-version-조회수" (strong ETag). 수정되면 version 이, 조회수가 반영되면 views 가 바뀐다.
+    private static String articleEtag(ArticleResponse article) {
+        return "\"" + article.getId() + "-" + article.getVersion() + "-" + article.getViews() + "\"";
+    }
+
+    //목록 ETag : 페이지에 포함된 글의 id, 수정시간과 nextCursor 의 md5
+    private static String pageEtag(ArticlePageResponse page) {
+        StringBuilder builder = new StringBuilder();
+        for (ArticleSummaryResponse article : page.getArticles()) {
+            builder.append(article.getId()).append(':').append(article.getUpdatedAt()).append(',');
+        }
+        builder.append(page.getNextCursor());
+        return "\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
@@ -1,8 +1,11 @@
 package kevin.study.springboot3.blog.controller;
 
 
+import kevin.study.springboot3.blog.dto.ArticlePageResponse;
 import kevin.study.springboot3.blog.dto.ArticleResponse;
+import kevin.study.springboot3.blog.service.ArticleViewCounter;
 import kevin.study.springboot3.blog.service.BlogService;
+import kevin.study.springboot3.blog.trending.TrendingArticleTracker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -10,24 +13,27 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
-
 @Controller
 @RequiredArgsConstructor
 public class BlogViewController {
 
     private final BlogService blogService;
+    private final ArticleViewCounter articleViewCounter;
+    private final TrendingArticleTracker trendingArticleTracker;
 
     @GetMapping("/articles")
-    public String getArticles(Model model) {
-        List<ArticleResponse> articles = blogService.findAll();
-        model.addAttribute("articles", articles);
+    public String getArticles(@RequestParam(required = false) String cursor, Model model) {
+        ArticlePageResponse page = blogService.findPage(cursor, null);
+        model.addAttribute("articles", page.getArticles());
+        model.addAttribute("nextCursor", page.getNextCursor());
         return "articleList";
     }
 
     @GetMapping("/articles/{id}")
     public String getArticle(@PathVariable Long id, Model model){
         ArticleResponse article = blogService.findById(id);
+        articleViewCounter.increment(id); //조회수는 메모리에서만 증가, DB 반영은 주기적으로 모아서
+        trendingArticleTracker.record(id);
         model.addAttribute("article", article);
         return "article";
     }
@@ -0,0 +1,69 @@
+package kevin.study.springboot3.blog.controller;
+
+import kevin.study.springboot3.blog.dto.ArticleCursor;
+import kevin.study.springboot3.blog.dto.ArticleSummaryResponse;
+import kevin.study.springboot3.blog.repository.ReactiveArticleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 읽기 전용 리액티브 API (WebFlux 함수형 핸들러, ReactiveReadServer 에서 서비스)
+ * - GET /api/reactive/articles : 최신글 순 목록을 NDJSON 으로 한줄에 글 하나씩 내려준다.
+ *   클라이언트가 읽는 속도에 맞춰 DB 에서 가져온다.
+ * - GET /api/reactive/article/{id} : 글 단건 조회 (없으면 404)
+ */
+@RequiredArgsConstructor
+public class ReactiveArticleHandler {
+    private final ReactiveArticleRepository reactiveArticleRepository;
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                              .GET("/api/reactive/articles", this::streamArticles)
+                              .GET("/api/reactive/article/{id}", this::findArticle)
+                              .build();
+    }
+
+    //cursor : /api/articles 의 nextCursor (없으면 처음부터), limit : 최대 건수 (없으면 끝까지)
+    private Mono<ServerResponse> streamArticles(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse("");
+        Flux<ArticleSummaryResponse> articles;
+        if (cursor.isBlank()) {
+            articles = reactiveArticleRepository.findAll();
+        } else {
+            ArticleCursor after = ArticleCursor.decode(cursor);
+            articles = reactiveArticleRepository.findAllAfter(after.createdAt(), after.id());
+        }
+        if (request.queryParam("limit").isPresent()) {
+            articles = articles.take(Math.max(parseLong(request.queryParam("limit").get(), "limit"), 0));
+        }
+        return ServerResponse.ok()
+                             .contentType(MediaType.APPLICATION_NDJSON)
+                             .body(articles, ArticleSummaryResponse.class);
+    }
+
+    private Mono<ServerResponse> findArticle(ServerRequest request) {
+        Long id = parseLong(request.pathVariable("id"), "id");
+        return reactiveArticleRepository.findById(id)
+                                        .flatMap(article -> ServerResponse.ok()
+                                                                          .contentType(MediaType.APPLICATION_JSON)
+                                                                          .bodyValue(article))
+                                        .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    //숫자가 아닌 파라미터는 400 (MVC 의 타입 변환 실패와 같은 상태코드)
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid " + name + " : " + value);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package kevin.study.springboot3.blog.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import kevin.study.springboot3.config.jpa.PooledSequenceGenerator;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -12,21 +17,40 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        //목록 keyset 페이지네이션 (order by created_at desc, id desc) 용 인덱스
+        @Index(name = "idx_article_created_at_id", columnList = "created_at, id"),
+        //작성자별 목록 (where author = ? order by created_at desc, id desc) 용 인덱스
+        @Index(name = Article.AUTHOR_INDEX, columnList = "author, created_at, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @EntityListeners(AuditingEntityListener.class) // JpaAuditing  쓰려면 추가해줘야함.
 public class Article {
+    //목록 화면 카드에 보여줄 본문 길이
+    public static final int EXCERPT_LENGTH = 100;
+    public static final String AUTHOR_INDEX = "idx_article_author_created_at_id";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "article_seq") //시퀀스로 id 를 미리 받아와서 insert 를 batch 로 묶을 수 있도록 함
+    @GenericGenerator(name = "article_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "article_seq"))
     @Column(name = "id", updatable = false)
     private Long id;
 
     @Column(name = "title", nullable = false)
     private String title;
 
-    @Column(name = "content", nullable = false)
-    private String content;
+    //목록에 보여줄 본문 앞부분 (본문을 읽지 않고 목록을 만들기 위해 같이 저장한다)
+    @Column(name = "excerpt", nullable = false, length = EXCERPT_LENGTH)
+    private String excerpt;
+
+    //본문은 별도 테이블에 저장하고 필요할 때만 읽는다.
+    //FK 는 article_body.article_id -> article.id (ON DELETE CASCADE) 이므로 글 쪽은 mappedBy 로 참조만 한다.
+    //JSON 응답에는 getContent() 로 본문만 내려준다.
+    @JsonIgnore
+    @OneToOne(mappedBy = "article", fetch = FetchType.LAZY, cascade = CascadeType.ALL, optional = false)
+    private ArticleBody body;
 
     @Column(name = "author", nullable = false)
     private String author;
@@ -39,15 +63,40 @@ public class Article {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    //조회수. ArticleViewCounter 가 모아둔 증가분을 주기적으로 UPDATE 로 더한다.
+    //엔티티 수정시 읽어온 값으로 덮어쓰지 않도록 updatable = false
+    @Column(name = "views", nullable = false, updatable = false)
+    private long views;
+
+    @Version //낙관적 락 - 수정될때마다 1씩 증가. 클라이언트가 보낸 version 과 다르면 수정 실패
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Builder
     public Article(String title, String content, String author) {
         this.title = title;
-        this.content = content;
+        this.excerpt = excerptOf(content);
+        this.body = new ArticleBody(this, content);
         this.author = author;
     }
 
+    //본문. 아직 읽지 않았으면 article_body 를 조회한다.
+    public String getContent() {
+        return body.getContent();
+    }
+
     public void update(String title, String content) {
         this.title = title;
-        this.content = content;
+        this.excerpt = excerptOf(content);
+        this.body.update(content);
+    }
+
+    //본문 앞 EXCERPT_LENGTH 글자 (surrogate pair 가 잘리지 않도록)
+    public static String excerptOf(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        int end = Character.isHighSurrogate(content.charAt(EXCERPT_LENGTH - 1)) ? EXCERPT_LENGTH - 1 : EXCERPT_LENGTH;
+        return content.substring(0, end);
     }
 }
@@ -0,0 +1,46 @@
+package kevin.study.springboot3.blog.domain;
+
+import jakarta.persistence.*;
+import kevin.study.springboot3.config.jpa.CompressedTextConverter;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 글 본문 (article_body 테이블)
+ * 본문은 길이 제한 없이 LOB 으로 저장하고, 일정 크기 이상이면 압축한다. (CompressedTextConverter)
+ * Article 에서 지연로딩하므로 목록 조회, 작성자 확인 등 본문이 필요없는 곳에서는 읽지 않는다.
+ *
+ * PK 는 글 id (article_id) 이고, 글을 참조하는 FK 에 ON DELETE CASCADE 를 걸어둔다.
+ * 글을 DELETE 한번으로 지우면 DB 가 본문도 같이 지운다. (본문 id 를 미리 조회하거나 따로 지울 필요 없음)
+ */
+@Entity
+@Table(name = "article_body")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArticleBody {
+
+    //글 id 를 그대로 쓴다. (@MapsId, 별도 시퀀스 없음)
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "article_id", foreignKey = @ForeignKey(name = "fk_article_body_article",
+            foreignKeyDefinition = "foreign key (article_id) references article (id) on delete cascade"))
+    private Article article;
+
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content", nullable = false)
+    private String content;
+
+    public ArticleBody(Article article, String content) {
+        this.article = article;
+        this.content = content;
+    }
+
+    public void update(String content) {
+        this.content = content;
+    }
+}
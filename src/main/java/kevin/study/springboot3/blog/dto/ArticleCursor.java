@@ -0,0 +1,38 @@
+package kevin.study.springboot3.blog.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 목록 조회(keyset 페이지네이션)의 다음 페이지 위치.
+ * 마지막으로 내려준 글의 (createdAt, id) 를 담고 있으며, 클라이언트에는 base64 문자열로만 노출한다.
+ */
+public record ArticleCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String DELIMITER = "|";
+
+    //cursor -> "createdAt|id" -> base64url 문자열
+    public String encode() {
+        String raw = createdAt + DELIMITER + id;
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //base64url 문자열 -> cursor. 잘못된 값이면 400 (클라이언트가 보낸 값이므로 서버 오류가 아님)
+    public static ArticleCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(DELIMITER);
+            return new ArticleCursor(LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor : " + value);
+        }
+    }
+}
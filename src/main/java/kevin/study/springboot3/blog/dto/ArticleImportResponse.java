@@ -0,0 +1,43 @@
+package kevin.study.springboot3.blog.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 글 일괄등록 결과
+ * errors 는 실패한 항목의 순번(0부터)과 사유. 메모리를 위해 최대 MAX_ERRORS 개까지만 담는다.
+ * completed 가 false 면 JSON 배열의 문법 오류로 끝까지 읽지 못한 것이다. (imported 는 그 전까지 저장된 건수)
+ */
+@Getter
+public class ArticleImportResponse {
+    public static final int MAX_ERRORS = 100;
+
+    private final long imported;
+    private final long failed;
+    private final boolean completed;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+    private final List<ImportError> errors;
+
+    public ArticleImportResponse(long imported, long failed, boolean completed, long elapsedMillis,
+                                 List<ImportError> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.completed = completed;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? imported : imported * 1000 / elapsedMillis;
+        this.errors = errors;
+    }
+
+    @Getter
+    public static class ImportError {
+        private final long index;
+        private final String message;
+
+        public ImportError(long index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package kevin.study.springboot3.blog.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 글 목록 한 페이지와 다음 페이지를 조회할 cursor.
+ * nextCursor 가 null 이면 마지막 페이지.
+ */
+@Getter
+public class ArticlePageResponse {
+    private final List<ArticleSummaryResponse> articles;
+    private final String nextCursor;
+
+    public ArticlePageResponse(List<ArticleSummaryResponse> articles, String nextCursor) {
+        this.articles = articles;
+        this.nextCursor = nextCursor;
+    }
+}
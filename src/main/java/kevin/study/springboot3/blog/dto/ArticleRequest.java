@@ -11,6 +11,8 @@ import lombok.NoArgsConstructor;
 public class ArticleRequest {
     private String title;
     private String content;
+    //수정시 클라이언트가 조회했던 글의 version (수정시 필수, 그 사이 다른 요청이 수정했으면 409)
+    private Long version;
 
     public Article toEntity(String author) {
         return Article.builder()
@@ -21,8 +23,9 @@ public class ArticleRequest {
     }
 
     @Builder
-    public ArticleRequest(String title, String content) {
+    public ArticleRequest(String title, String content, Long version) {
         this.title = title;
         this.content = content;
+        this.version = version;
     }
 }
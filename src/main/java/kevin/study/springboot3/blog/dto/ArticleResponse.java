@@ -14,6 +14,8 @@ public class ArticleResponse {
     private String content;
     private String author;
     private LocalDateTime createdAt;
+    private Long version;
+    private Long views;
 
     public ArticleResponse() {
     }
@@ -25,5 +27,18 @@ public class ArticleResponse {
         this.content = article.getContent();
         this.author = article.getAuthor();
         this.createdAt = article.getCreatedAt();
+        this.version = article.getVersion();
+        this.views = article.getViews();
+    }
+
+    //엔티티를 조회하지 않고 응답을 만들 때 사용 (R2DBC 조회 결과 등)
+    public ArticleResponse(Long id, String title, String content, String author,
+                           LocalDateTime createdAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.author = author;
+        this.createdAt = createdAt;
+        this.version = version;
     }
 }
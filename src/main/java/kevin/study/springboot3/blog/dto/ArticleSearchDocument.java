@@ -0,0 +1,8 @@
+package kevin.study.springboot3.blog.dto;
+
+/**
+ * 검색 색인을 다시 만들 때 읽는 글 한건 (색인에 필요한 컬럼만)
+ * BlogRepository 의 JPQL 생성자 표현식으로 바로 생성되므로 엔티티가 영속성 컨텍스트에 쌓이지 않는다.
+ */
+public record ArticleSearchDocument(Long id, String title, String author, String content) {
+}
@@ -0,0 +1,21 @@
+package kevin.study.springboot3.blog.dto;
+
+import lombok.Getter;
+
+/**
+ * 글 검색 결과 (BM25 점수 내림차순)
+ */
+@Getter
+public class ArticleSearchResponse {
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final double score;
+
+    public ArticleSearchResponse(Long id, String title, String author, double score) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.score = score;
+    }
+}
@@ -0,0 +1,30 @@
+package kevin.study.springboot3.blog.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록 조회용 글 요약 (본문 전체 대신 article 테이블의 excerpt 만 가진다)
+ * BlogRepository 의 JPQL 생성자 표현식(select new ...)으로 바로 생성되므로
+ * 엔티티로 조회되지 않고, 영속성 컨텍스트에도 올라가지 않는다.
+ */
+@Getter
+public class ArticleSummaryResponse {
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final String excerpt;
+
+    public ArticleSummaryResponse(Long id, String title, String author,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt, String excerpt) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.excerpt = excerpt;
+    }
+}
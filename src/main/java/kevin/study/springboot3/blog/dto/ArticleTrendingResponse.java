@@ -0,0 +1,19 @@
+package kevin.study.springboot3.blog.dto;
+
+import lombok.Getter;
+
+/**
+ * 최근 많이 읽힌 글 (score : half-life 기준으로 decay 된 최근 조회수 추정치, 내림차순)
+ */
+@Getter
+public class ArticleTrendingResponse {
+    private final Long id;
+    private final String title;
+    private final double score;
+
+    public ArticleTrendingResponse(Long id, String title, double score) {
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+}
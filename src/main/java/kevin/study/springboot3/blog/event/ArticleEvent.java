@@ -0,0 +1,35 @@
+package kevin.study.springboot3.blog.event;
+
+/**
+ * 글 등록/수정/삭제 알림 (SSE 로 구독자에게 보내는 data)
+ * 삭제 이벤트는 title, author 가 비어있다.
+ * resync 는 글 하나가 아닌 여러 글이 한번에 바뀌었다는 알림이다. (일괄등록 등, id 도 비어있음)
+ * 구독자가 뒤처졌을 때 보내는 resync 와 같은 이름이므로 클라이언트는 똑같이 목록을 다시 조회하면 된다.
+ */
+public record ArticleEvent(Type type, Long id, String title, String author) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RESYNC;
+
+        //SSE event 이름 (EventSource.addEventListener("created", ...))
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static ArticleEvent created(Long id, String title, String author) {
+        return new ArticleEvent(Type.CREATED, id, title, author);
+    }
+
+    public static ArticleEvent updated(Long id, String title, String author) {
+        return new ArticleEvent(Type.UPDATED, id, title, author);
+    }
+
+    public static ArticleEvent deleted(Long id) {
+        return new ArticleEvent(Type.DELETED, id, null, null);
+    }
+
+    public static ArticleEvent resync() {
+        return new ArticleEvent(Type.RESYNC, null, null, null);
+    }
+}
@@ -0,0 +1,250 @@
+package kevin.study.springboot3.blog.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 글 등록/수정/삭제 이벤트를 SSE 구독자들에게 보낸다. (GET /api/articles/events)
+ *
+ * 발행하는 쪽은 이벤트를 JSON 으로 한번만 직렬화해서 링 버퍼에 넣고, 구독자들에게 새 이벤트가 있다고 알리기만 한다.
+ * 실제 전송은 구독자마다 따로 자기 cursor 부터 버퍼를 읽으면서 한다.
+ * 그래서 느린 구독자가 있어도 발행하는 요청이나 다른 구독자는 기다리지 않는다.
+ *
+ * 전송은 전용 스레드풀(app.events.executor.*)에서 한다. 스레드 수와 대기열이 고정이라서
+ * 구독자가 많거나 막혀도 export 등 다른 비동기 작업의 applicationTaskExecutor 를 차지하지 않는다.
+ * (대기열이 가득 차서 전송을 예약할 수 없으면 그 구독자는 연결을 끝낸다)
+ * 한번의 쓰기가 app.events.write-timeout-ms 이상 끝나지 않는 구독자(클라이언트가 읽지 않음)는
+ * heartbeat 때 구독자 목록에서 빼고 더 이상 전송하지 않는다. 막힌 쓰기가 끝나면 emitter 를 완료한다.
+ *
+ * 구독자가 버퍼 크기 이상 뒤처지면 (읽을 이벤트가 이미 덮어써짐) 놓친 이벤트를 보내는 대신
+ * resync 이벤트를 보내고 최신 위치로 건너뛴다. 클라이언트는 resync 를 받으면 목록을 다시 조회한다.
+ * (일괄등록처럼 글이 한번에 많이 바뀌는 경우에도 글마다 이벤트를 보내지 않고 resync 를 하나만 발행한다)
+ *
+ * 이벤트 id 는 "서버 구동 id-순번" 이다. 재접속시 Last-Event-ID 로 보내면 그 다음 이벤트부터 이어서 받는다.
+ * 서버가 재시작되었거나 이미 버퍼에서 밀려난 id 면 resync 를 보낸다.
+ */
+@Slf4j
+@Component
+public class ArticleEventBroadcaster {
+    public static final String RESYNC_EVENT = ArticleEvent.Type.RESYNC.eventName();
+    private static final String ID_DELIMITER = "-";
+
+    private final ArticleEventRing ring;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMillis;
+    private final long writeTimeoutMillis;
+    private final Counter resyncCounter;
+    private final Counter stalledCounter;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    //재시작 전에 받은 이벤트 id 를 구분하기 위한 값
+    private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public ArticleEventBroadcaster(ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.events.buffer-size:1024}") int bufferSize,
+                                   @Value("${app.events.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${app.events.write-timeout-ms:10000}") long writeTimeoutMillis,
+                                   @Value("${app.events.executor.threads:4}") int threads,
+                                   @Value("${app.events.executor.queue-capacity:1024}") int queueCapacity) {
+        this.ring = new ArticleEventRing(bufferSize);
+        this.objectMapper = objectMapper;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("article-events-");
+        executor.initialize();
+        this.timeoutMillis = timeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.resyncCounter = meterRegistry.counter("app.articles.events.resync");
+        this.stalledCounter = meterRegistry.counter("app.articles.events.stalled");
+        meterRegistry.gaugeCollectionSize("app.articles.events.subscribers", Tags.empty(), subscribers);
+    }
+
+    //이벤트 발행. 트랜잭션 커밋 후에 호출한다. 반환값은 이벤트 id
+    public String publish(ArticleEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("cannot serialize article event : " + event, e);
+        }
+        long seq = ring.publish(event.type(), data);
+        subscribers.forEach(Subscriber::signal);
+        return eventId(seq);
+    }
+
+    //구독 시작. lastEventId 가 있으면 그 다음 이벤트부터, 없으면 지금 이후 이벤트부터 보낸다.
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, resumeFrom(lastEventId));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return emitter;
+    }
+
+    //연결이 끊긴 구독자, 쓰기가 막힌 구독자를 찾아내고, 프록시가 idle 연결을 끊지 않도록 주기적으로 comment 를 보낸다.
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        subscribers.forEach(subscriber -> subscriber.heartbeat(now));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private String eventId(long seq) {
+        return instanceId + ID_DELIMITER + seq;
+    }
+
+    //Last-Event-ID -> 이미 받은 마지막 순번. 다른 서버 구동에서 받은 id 면 -1 (resync 필요)
+    private long resumeFrom(String lastEventId) {
+        long last = ring.lastSeq();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return last;
+        }
+        int index = lastEventId.lastIndexOf(ID_DELIMITER);
+        if (index < 0 || !lastEventId.substring(0, index).equals(instanceId)) {
+            return -1;
+        }
+        try {
+            long seq = Long.parseLong(lastEventId.substring(index + 1));
+            return seq >= 0 && seq <= last ? seq : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        //이미 보낸 마지막 순번 (-1 이면 resync 부터 보낸다)
+        private long cursor;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+        private volatile boolean closed;
+        //write timeout 으로 구독자 목록에서 빠짐. 막힌 쓰기가 끝나면 전송 스레드가 emitter 를 완료한다.
+        private volatile boolean stalled;
+        //진행중인 쓰기의 시작 시각 (ms), 쓰기중이 아니면 0
+        private volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        //보낼 이벤트가 생겼다. 이미 전송중이면 전송중인 작업이 이어서 보낸다.
+        void signal() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    log.warn("cannot schedule article event delivery : {}", e.getMessage());
+                    scheduled.set(false);
+                    emitter.complete();
+                }
+            }
+        }
+
+        void heartbeat(long now) {
+            long started = sendStartedAt;
+            if (started != 0 && now - started > writeTimeoutMillis) {
+                stall();
+                return;
+            }
+            heartbeatPending.set(true);
+            signal();
+        }
+
+        //emitter 의 send 와 complete 는 같은 lock 을 잡으므로 여기서 complete 하면 heartbeat 스레드도 같이 막힌다.
+        //구독자 목록에서만 빼고, emitter 완료는 쓰기가 끝난 전송 스레드에 맡긴다.
+        private void stall() {
+            if (!closed) {
+                stalledCounter.increment();
+                log.info("article event subscriber stalled over {}ms, dropping", writeTimeoutMillis);
+            }
+            stalled = true;
+            close();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedAt = System.currentTimeMillis();
+            try {
+                emitter.send(event);
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        private void drain() {
+            try {
+                long last;
+                while (!closed && cursor < (last = ring.lastSeq())) {
+                    ArticleEventRing.Entry entry = cursor < 0 ? null : ring.get(cursor + 1);
+                    if (entry == null) { //뒤처져서 이벤트가 덮어써졌다.
+                        resyncCounter.increment();
+                        cursor = last;
+                        send(SseEmitter.event()
+                                       .id(eventId(last))
+                                       .name(RESYNC_EVENT)
+                                       .data(RESYNC_EVENT));
+                        continue;
+                    }
+                    send(SseEmitter.event()
+                                   .id(eventId(entry.seq()))
+                                   .name(entry.type().eventName())
+                                   .data(entry.data()));
+                    cursor = entry.seq();
+                }
+                if (!closed && heartbeatPending.getAndSet(false)) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+                if (stalled) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                //연결이 끊겼거나 이미 완료된 emitter
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+            }
+            //전송을 끝내는 사이에 새 이벤트가 들어왔으면 다시 보낸다.
+            if (!closed && (cursor < ring.lastSeq() || heartbeatPending.get())) {
+                signal();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package kevin.study.springboot3.blog.event;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 고정 크기 이벤트 링 버퍼 (쓰기 1, 읽기 N)
+ *
+ * 이벤트마다 1부터 증가하는 순번(seq)을 붙여서 seq % capacity 칸에 저장한다.
+ * 쓰기는 락으로 한번에 하나씩만 하고, 읽기는 락 없이 자기 cursor 다음 순번을 찾아 읽는다.
+ * 칸이 이미 더 새로운 이벤트로 덮어써졌으면 null 을 반환한다. (읽는 쪽이 capacity 이상 뒤처짐)
+ */
+class ArticleEventRing {
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    //마지막으로 저장된 순번 (0 이면 아직 없음). 칸에 저장한 뒤에 증가시키므로 이 값 이하는 항상 읽을 수 있다.
+    private volatile long lastSeq;
+
+    //capacity 는 2의 거듭제곱으로 올림한다.
+    ArticleEventRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive : " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    long publish(ArticleEvent.Type type, String data) {
+        writeLock.lock();
+        try {
+            long seq = lastSeq + 1;
+            slots.set((int) (seq & mask), new Entry(seq, type, data));
+            lastSeq = seq;
+            return seq;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    //seq 번째 이벤트. 덮어써졌거나 아직 없으면 null
+    Entry get(long seq) {
+        Entry entry = slots.get((int) (seq & mask));
+        return entry != null && entry.seq() == seq ? entry : null;
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    //data 는 발행할 때 한번만 JSON 으로 직렬화해둔다. (구독자 수와 상관없이 1번)
+    record Entry(long seq, ArticleEvent.Type type, String data) {
+    }
+}
@@ -0,0 +1,17 @@
+package kevin.study.springboot3.blog.repository;
+
+import kevin.study.springboot3.blog.domain.ArticleBody;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ArticleBodyRepository extends JpaRepository<ArticleBody, Long> {
+
+    //글 id 로 본문 수정 (BlogRepository.updateByIdAndAuthor 로 권한, version 확인 후 호출)
+    //본문 id 가 글 id 와 같으므로 글을 조회하지 않고 바로 수정한다.
+    //content 파라미터도 CompressedTextConverter 로 변환(압축)되어 저장된다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ArticleBody b set b.content = :content where b.id = :articleId")
+    int updateContent(@Param("articleId") Long articleId, @Param("content") String content);
+}
@@ -1,7 +1,110 @@
 package kevin.study.springboot3.blog.repository;
 
+import jakarta.persistence.QueryHint;
 import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleSearchDocument;
+import kevin.study.springboot3.blog.dto.ArticleSummaryResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface BlogRepository extends JpaRepository<Article, Long> {
+
+    //목록 조회용 요약 projection. 본문(article_body)은 읽지 않고 excerpt 컬럼만 가져온다.
+    String SELECT_SUMMARY = "select new kevin.study.springboot3.blog.dto.ArticleSummaryResponse(" +
+            "a.id, a.title, a.author, a.createdAt, a.updatedAt, a.excerpt) " +
+            "from Article a ";
+
+    //export 시 한번에 JDBC 로 가져올 row 수
+    int EXPORT_FETCH_SIZE = 500;
+
+    //keyset 페이지네이션 - 첫 페이지 (최신글 순)
+    //Pageable 은 limit 용도로만 사용한다. (page 0 고정, count 쿼리 없음)
+    @Query(SELECT_SUMMARY +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleSummaryResponse> findFirstPage(Pageable pageable);
+
+    //keyset 페이지네이션 - cursor(createdAt, id) 이후 페이지
+    //offset 을 쓰지 않으므로 몇번째 페이지든 (created_at, id) 인덱스에서 바로 이어서 읽는다.
+    @Query(SELECT_SUMMARY +
+            "where a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id) " +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleSummaryResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    //작성자별 목록 - 첫 페이지 (최신글 순)
+    //(author, created_at, id) 인덱스에서 author 가 같은 구간만 역순으로 읽는다. (정렬 없음)
+    @Query(SELECT_SUMMARY +
+            "where a.author = :author " +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleSummaryResponse> findFirstPageByAuthor(@Param("author") String author, Pageable pageable);
+
+    //작성자별 목록 - cursor(createdAt, id) 이후 페이지
+    @Query(SELECT_SUMMARY +
+            "where a.author = :author " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id)) " +
+            "order by a.createdAt desc, a.id desc")
+    List<ArticleSummaryResponse> findPageAfterByAuthor(@Param("author") String author,
+                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+
+    //단건 조회 - 본문까지 쿼리 한번으로 가져온다.
+    @Query("select a from Article a join fetch a.body where a.id = :id")
+    Optional<Article> findWithBodyById(@Param("id") Long id);
+
+    //작성자 본인 글이고 version 이 같을 때만 수정 (조회 없이 UPDATE 한번으로 권한, version 확인 + 수정)
+    //수정된 row 수를 반환 (0 이면 실패)
+    //본문은 ArticleBodyRepository.updateContent 로 따로 수정한다.
+    //bulk 연산은 영속성 컨텍스트를 거치지 않으므로 실행 전 flush, 실행 후 clear 한다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Article a " +
+            "set a.title = :title, a.excerpt = :excerpt, a.updatedAt = :updatedAt, a.version = a.version + 1 " +
+            "where a.id = :id and a.author = :author and a.version = :version")
+    int updateByIdAndAuthor(@Param("id") Long id,
+                            @Param("author") String author,
+                            @Param("version") Long version,
+                            @Param("title") String title,
+                            @Param("excerpt") String excerpt,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    //작성자 본인 글일 때만 삭제. 삭제된 row 수를 반환 (0 이면 실패)
+    //본문(article_body)은 FK 의 ON DELETE CASCADE 로 DB 가 같이 삭제한다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Article a where a.id = :id and a.author = :author")
+    int deleteByIdAndAuthor(@Param("id") Long id, @Param("author") String author);
+
+    //수정/삭제 실패시 원인(없는 글인지, 권한이 없는지) 확인용
+    @Query("select a.author from Article a where a.id = :id")
+    Optional<String> findAuthorById(@Param("id") Long id);
+
+    //전체 글(본문 포함) export 용 스트림. 결과를 한번에 List 로 올리지 않고 fetch size 단위로 커서를 읽는다.
+    //반드시 트랜잭션 안에서 사용하고 다 읽은 뒤 close 해야 한다. (try-with-resources)
+    //MySQL 은 fetch size 를 적용하려면 jdbc url 에 useCursorFetch=true 가 필요하다.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Article a join fetch a.body order by a.id")
+    Stream<Article> streamAll();
+
+    //검색 색인 재생성용 스트림. 엔티티 대신 id, 제목, 작성자, 본문만 projection 으로 읽는다.
+    //(엔티티로 읽으면 다 읽을 때까지 전체 글과 본문이 영속성 컨텍스트에 남는다)
+    //streamAll 과 마찬가지로 트랜잭션 안에서 사용하고 다 읽은 뒤 close 해야 한다.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select new kevin.study.springboot3.blog.dto.ArticleSearchDocument(a.id, a.title, a.author, b.content) " +
+            "from Article a join a.body b order by a.id")
+    Stream<ArticleSearchDocument> streamSearchDocuments();
 }
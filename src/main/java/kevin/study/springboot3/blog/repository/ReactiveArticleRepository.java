@@ -0,0 +1,104 @@
+package kevin.study.springboot3.blog.repository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Blob;
+import io.r2dbc.spi.Readable;
+import kevin.study.springboot3.blog.dto.ArticleResponse;
+import kevin.study.springboot3.blog.dto.ArticleSummaryResponse;
+import kevin.study.springboot3.config.jpa.CompressedTextConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * article 테이블 읽기 전용 R2DBC 조회 (BlogRepository 의 목록/단건 조회와 같은 쿼리)
+ * 결과는 구독자가 요청(request)한 만큼만 DB 에서 읽어온다.
+ * ReactiveConfig 에서 app.reactive.enabled=true 일 때만 생성된다.
+ *
+ * scheduler : 쿼리를 실행(구독)할 스레드. non-blocking 드라이버는 immediate (event loop 에서 그대로),
+ * 내부적으로 blocking 인 드라이버(r2dbc-h2)는 boundedElastic 을 넘겨서 event loop 를 막지 않게 한다.
+ */
+public class ReactiveArticleRepository {
+    private static final String SELECT_SUMMARY = "SELECT id, title, author, created_at, updated_at, excerpt FROM article ";
+    private static final String ORDER_BY_LATEST = "ORDER BY created_at DESC, id DESC";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+    private final Scheduler scheduler;
+
+    public ReactiveArticleRepository(ConnectionPool pool, Scheduler scheduler) {
+        this.pool = pool;
+        this.databaseClient = DatabaseClient.create(pool);
+        this.scheduler = scheduler;
+    }
+
+    //최신글 순 전체 목록
+    public Flux<ArticleSummaryResponse> findAll() {
+        return databaseClient.sql(SELECT_SUMMARY + ORDER_BY_LATEST)
+                             .map(ReactiveArticleRepository::toSummary)
+                             .all()
+                             .subscribeOn(scheduler);
+    }
+
+    //cursor(createdAt, id) 이후 목록 (BlogRepository.findPageAfter 와 같은 keyset 조건)
+    public Flux<ArticleSummaryResponse> findAllAfter(LocalDateTime createdAt, Long id) {
+        return databaseClient.sql(SELECT_SUMMARY +
+                                     "WHERE created_at < :createdAt OR (created_at = :createdAt AND id < :id) " +
+                                     ORDER_BY_LATEST)
+                             .bind("createdAt", createdAt)
+                             .bind("id", id)
+                             .map(ReactiveArticleRepository::toSummary)
+                             .all()
+                             .subscribeOn(scheduler);
+    }
+
+    //본문은 LOB(압축되어 있을 수 있음) 이므로 Blob 스트림을 모두 읽은 뒤 CompressedTextConverter 로 복원한다.
+    public Mono<ArticleResponse> findById(Long id) {
+        return databaseClient.sql("SELECT a.id, a.title, a.author, a.created_at, a.version, b.content " +
+                                     "FROM article a JOIN article_body b ON b.article_id = a.id WHERE a.id = :id")
+                             .bind("id", id)
+                             .map(row -> new ArticleRow(row.get("id", Long.class),
+                                     row.get("title", String.class),
+                                     row.get("author", String.class),
+                                     row.get("created_at", LocalDateTime.class),
+                                     row.get("version", Long.class),
+                                     row.get("content", Blob.class)))
+                             .one()
+                             .flatMap(article -> readAll(article.content())
+                                     .map(content -> new ArticleResponse(article.id(), article.title(),
+                                             CompressedTextConverter.decompress(content), article.author(),
+                                             article.createdAt(), article.version())))
+                             .subscribeOn(scheduler);
+    }
+
+    //커넥션 풀 종료 (빈 destroy 시 호출)
+    public void dispose() {
+        pool.dispose();
+    }
+
+    private static Mono<byte[]> readAll(Blob blob) {
+        return Flux.from(blob.stream())
+                   .collect(ByteArrayOutputStream::new, (out, buffer) -> {
+                       byte[] bytes = new byte[buffer.remaining()];
+                       buffer.get(bytes);
+                       out.writeBytes(bytes);
+                   })
+                   .map(ByteArrayOutputStream::toByteArray);
+    }
+
+    private static ArticleSummaryResponse toSummary(Readable row) {
+        return new ArticleSummaryResponse(row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("author", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("excerpt", String.class));
+    }
+
+    private record ArticleRow(Long id, String title, String author, LocalDateTime createdAt, Long version, Blob content) {
+    }
+}
@@ -0,0 +1,235 @@
+package kevin.study.springboot3.blog.search;
+
+import kevin.study.springboot3.blog.dto.ArticleSearchDocument;
+import kevin.study.springboot3.blog.dto.ArticleSearchResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 글 검색용 메모리 역색인(inverted index)
+ * term(bigram) -> (글 id -> 등장횟수) 형태로 저장하고, BM25 로 점수를 계산한다.
+ * 글 등록/수정/삭제시 BlogService 가 바로 반영하고, 애플리케이션 시작시 ArticleSearchIndexLoader 가 DB 에서 다시 만든다. (rebuild)
+ * 검색은 DB 를 조회하지 않는다.
+ */
+@Component
+public class ArticleSearchIndex {
+    //BM25 파라미터 (일반적으로 쓰는 기본값)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    //rebuild() 가 새로 만든 색인으로 한번에 교체하므로 final 이 아니다. (writeLock 안에서만 바꾼다)
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private Map<Long, IndexedArticle> articles = new HashMap<>();
+    private long totalLength = 0;
+
+    //rebuild() 중에 index(), remove() 로 바뀐 글 id. rebuild 중이 아니면 null
+    private Set<Long> changedDuringRebuild;
+
+    //검색은 동시에 여러개, 색인 변경은 한번에 하나만
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //글을 색인한다. 이미 색인된 글이면 기존 내용을 지우고 다시 색인한다.
+    public void index(Long id, String title, String author, String content) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = 0;
+        for (String text : new String[]{title, content}) {
+            for (String term : BigramTokenizer.tokenize(text)) {
+                termFrequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeInternal(id);
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>())
+                        .put(id, entry.getValue());
+            }
+            articles.put(id, new IndexedArticle(title, author, length, termFrequencies.keySet()));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //source 의 전체 글로 새 색인을 만든 뒤 한번에 교체한다.
+    //새 색인은 lock 밖에서 만들기 때문에 그동안 검색, 색인 변경이 막히지 않는다.
+    //만드는 중에 index(), remove() 로 반영된 글은 source 보다 최신이므로 교체할 때 현재 색인의 값을 그대로 가져간다.
+    //(source 의 스트림은 변경 기록을 시작한 뒤에 연다)
+    public void rebuild(Supplier<Stream<ArticleSearchDocument>> source) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ArticleSearchIndex rebuilt = new ArticleSearchIndex();
+        boolean loaded = false;
+        try (Stream<ArticleSearchDocument> documents = source.get()) {
+            documents.forEach(document -> rebuilt.index(document.id(), document.title(),
+                    document.author(), document.content()));
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    for (Long id : changedDuringRebuild) {
+                        rebuilt.copyFrom(this, id);
+                    }
+                    postings = rebuilt.postings;
+                    articles = rebuilt.articles;
+                    totalLength = rebuilt.totalLength;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return articles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //색인된 글의 제목 (DB 조회 없이 제목만 필요할 때 사용). 없는 글이면 empty
+    public Optional<String> findTitle(Long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(articles.get(id))
+                           .map(IndexedArticle::title);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //BM25 점수 상위 limit 개를 점수 내림차순으로 반환
+    public List<ArticleSearchResponse> search(String query, int limit) {
+        List<String> terms = BigramTokenizer.tokenize(query);
+        if (terms.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (articles.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int documentCount = articles.size();
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : new HashSet<>(terms)) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int frequency = entry.getValue();
+                    int length = articles.get(entry.getKey()).length();
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+
+            //크기가 limit 인 최소 힙으로 상위 limit 개만 유지한다. (전체 정렬하지 않음)
+            PriorityQueue<Map.Entry<Long, Double>> topK = new PriorityQueue<>(limit, Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (topK.size() < limit) {
+                    topK.offer(entry);
+                } else if (entry.getValue() > topK.peek().getValue()) {
+                    topK.poll();
+                    topK.offer(entry);
+                }
+            }
+
+            List<ArticleSearchResponse> results = new ArrayList<>(topK.size());
+            for (Map.Entry<Long, Double> entry : topK) {
+                IndexedArticle article = articles.get(entry.getKey());
+                results.add(new ArticleSearchResponse(entry.getKey(), article.title(), article.author(), entry.getValue()));
+            }
+            results.sort(Comparator.comparingDouble(ArticleSearchResponse::getScore).reversed());
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //writeLock 을 잡은 상태에서 호출해야 한다.
+    private void markChanged(Long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+    }
+
+    //source 의 id 글 색인 상태를 그대로 복사한다. (source 에 없으면 삭제)
+    //rebuild() 에서 새로 만든 색인(다른 스레드에 공개되지 않음)에만 호출하고, source 의 writeLock 을 잡은 상태여야 한다.
+    private void copyFrom(ArticleSearchIndex source, Long id) {
+        removeInternal(id);
+        IndexedArticle article = source.articles.get(id);
+        if (article == null) {
+            return;
+        }
+        for (String term : article.terms()) {
+            postings.computeIfAbsent(term, key -> new HashMap<>())
+                    .put(id, source.postings.get(term).get(id));
+        }
+        articles.put(id, article);
+        totalLength += article.length();
+    }
+
+    //writeLock 을 잡은 상태에서 호출해야 한다.
+    private void removeInternal(Long id) {
+        IndexedArticle previous = articles.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length();
+    }
+
+    //검색 결과를 DB 조회 없이 만들기 위해 제목, 작성자도 같이 보관한다.
+    private record IndexedArticle(String title, String author, int length, Set<String> terms) {
+    }
+}
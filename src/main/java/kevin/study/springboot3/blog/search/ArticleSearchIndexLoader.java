@@ -0,0 +1,31 @@
+package kevin.study.springboot3.blog.search;
+
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 애플리케이션 시작시 DB 의 전체 글로 검색 색인을 다시 만든다.
+ * (색인은 메모리에만 있으므로 재시작하면 비어있음)
+ * 새 색인을 다 만든 뒤 교체하므로, 그 사이의 검색과 글 등록/수정/삭제 반영은 그대로 동작한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleSearchIndexLoader {
+    private final BlogRepository blogRepository;
+    private final ArticleSearchIndex articleSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        articleSearchIndex.rebuild(blogRepository::streamSearchDocuments);
+        log.info("article search index rebuilt : {} articles in {} ms",
+                articleSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
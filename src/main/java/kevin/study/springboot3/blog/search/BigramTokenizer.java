@@ -0,0 +1,66 @@
+package kevin.study.springboot3.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 문자 bigram 토크나이저
+ * 한국어는 띄어쓰기 단위(어절)에 조사가 붙어 있어서 단어 단위로 자르면 검색이 잘 안된다.
+ * ("스프링부트를" 로 색인하면 "스프링" 으로 검색 불가)
+ * 그래서 글자/숫자가 이어진 구간을 2글자씩 겹쳐서 자른다. ("스프링부트" -> 스프, 프링, 링부, 부트)
+ * 1글자짜리 구간은 그대로 1개의 토큰이 된다.
+ */
+public final class BigramTokenizer {
+
+    private BigramTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int runStart = -1;
+        int offset = 0;
+        while (offset <= lower.length()) {
+            boolean inRun = false;
+            int codePoint = 0;
+            if (offset < lower.length()) {
+                codePoint = lower.codePointAt(offset);
+                inRun = Character.isLetterOrDigit(codePoint);
+            }
+
+            if (inRun && runStart < 0) {
+                runStart = offset;
+            } else if (!inRun && runStart >= 0) {
+                addBigrams(lower, runStart, offset, tokens);
+                runStart = -1;
+            }
+
+            if (offset == lower.length()) {
+                break;
+            }
+            offset += Character.charCount(codePoint);
+        }
+        return tokens;
+    }
+
+    //[start, end) 구간을 2글자씩 겹쳐서 자른다. (surrogate pair 도 1글자로 취급)
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        int first = start;
+        int second = text.offsetByCodePoints(first, 1);
+        if (second >= end) {
+            tokens.add(text.substring(first, end));
+            return;
+        }
+        while (second < end) {
+            int third = text.offsetByCodePoints(second, 1);
+            tokens.add(text.substring(first, third));
+            first = second;
+            second = third;
+        }
+    }
+}
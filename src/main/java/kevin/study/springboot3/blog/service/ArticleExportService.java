@@ -0,0 +1,51 @@
+package kevin.study.springboot3.blog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleResponse;
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 전체 글을 NDJSON(한줄에 JSON 하나) 형식으로 내보낸다.
+ * 글 목록을 메모리에 모으지 않고 DB 커서에서 한건씩 읽어서 바로 출력 스트림에 쓰므로
+ * 글 개수와 상관없이 메모리 사용량이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ArticleExportService {
+    private static final byte NEW_LINE = '\n';
+
+    private final BlogRepository blogRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportTo(OutputStream outputStream) throws IOException {
+        try (Stream<Article> articles = blogRepository.streamAll()) {
+            Iterator<Article> iterator = articles.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                Article article = iterator.next();
+                outputStream.write(objectMapper.writeValueAsBytes(new ArticleResponse(article)));
+                outputStream.write(NEW_LINE);
+                //다 쓴 엔티티는 영속성 컨텍스트에서 분리해서 GC 대상이 되도록 한다. (본문도 cascade 로 같이 분리)
+                entityManager.detach(article);
+
+                //fetch size 단위로 flush 해서 클라이언트가 조회가 끝나기 전에 읽기 시작할 수 있도록 한다.
+                if (++count % BlogRepository.EXPORT_FETCH_SIZE == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,185 @@
+package kevin.study.springboot3.blog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleImportResponse;
+import kevin.study.springboot3.blog.dto.ArticleImportResponse.ImportError;
+import kevin.study.springboot3.blog.dto.ArticleRequest;
+import kevin.study.springboot3.blog.event.ArticleEvent;
+import kevin.study.springboot3.blog.event.ArticleEventBroadcaster;
+import kevin.study.springboot3.blog.search.ArticleSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 글 일괄등록 (기존 CMS 데이터 이관용)
+ * 요청 본문을 한번에 읽지 않고 항목 단위로(JsonRecordReader) 한건씩 읽으면서
+ * CHUNK_SIZE 개 단위로 트랜잭션을 나눠 저장한다.
+ * - JSON 배열([{...}, {...}]) 과 NDJSON(한줄에 {...} 하나) 모두 지원
+ * - chunk 마다 flush + clear 로 영속성 컨텍스트를 비워서 메모리 사용량이 본문 크기와 상관없이 일정하다.
+ * - 잘못된 항목은 건너뛰고 순번과 사유를 결과에 담는다. (전체를 실패시키지 않음)
+ *   배열의 JSON 문법 오류는 그 뒤를 읽을 수 없으므로 거기까지 저장하고 completed = false 로 응답한다.
+ * - 요청 본문 읽기가 실패하면 (연결 끊김 등) 모으던 chunk 는 저장하지 않고 예외를 그대로 던진다.
+ *   (이미 커밋된 chunk 는 남는다. 저장된 건수는 로그로 남긴다)
+ * - 등록 알림은 글마다 보내지 않고, 일괄등록이 끝나면 resync 이벤트 하나만 보낸다. (구독자는 목록을 다시 조회)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleImportService {
+    public static final int CHUNK_SIZE = 1000;
+    //Article 의 title 컬럼 길이 (@Column 기본값). 본문은 article_body 에 LOB 으로 저장하므로 길이 제한 없음
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArticleEventBroadcaster articleEventBroadcaster;
+
+    public ArticleImportResponse importFrom(InputStream inputStream, String author) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportResult result = new ImportResult();
+        List<PendingArticle> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (JsonRecordReader reader = new JsonRecordReader(inputStream, objectMapper)) {
+            long index = 0;
+            while (!reader.isFinished()) {
+                JsonNode node;
+                try {
+                    node = reader.next();
+                } catch (JsonProcessingException e) {
+                    result.fail(index++, reader.stoppedOnError()
+                            ? e.getOriginalMessage() + " (remaining items were not read)"
+                            : e.getOriginalMessage());
+                    continue;
+                }
+                if (node == null) {
+                    break;
+                }
+                collect(index++, node, author, chunk, result);
+                if (chunk.size() == CHUNK_SIZE) {
+                    saveChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            result.completed = !reader.stoppedOnError();
+            saveChunk(chunk, result);
+        } catch (IOException e) {
+            log.warn("article import aborted while reading the request body : imported={}, failed={}",
+                    result.imported, result.failed);
+            throw e;
+        } finally {
+            if (result.imported > 0) {
+                articleEventBroadcaster.publish(ArticleEvent.resync());
+            }
+        }
+
+        long elapsedMillis = System.currentTimeMillis() - start;
+        log.info("article import : imported={}, failed={}, completed={}, elapsed={}ms",
+                result.imported, result.failed, result.completed, elapsedMillis);
+        return new ArticleImportResponse(result.imported, result.failed, result.completed, elapsedMillis, result.errors);
+    }
+
+    //항목 하나를 검증한다. 검증 실패는 순번과 사유만 남기고 다음 항목으로 넘어간다.
+    private void collect(long index, JsonNode node, String author, List<PendingArticle> chunk, ImportResult result) {
+        try {
+            chunk.add(new PendingArticle(index, toRequest(node).toEntity(author)));
+        } catch (JsonProcessingException e) {
+            result.fail(index, e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            result.fail(index, e.getMessage());
+        }
+    }
+
+    private ArticleRequest toRequest(JsonNode node) throws JsonProcessingException {
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("item is not a json object");
+        }
+        ArticleRequest request = objectMapper.treeToValue(node, ArticleRequest.class);
+        validateNotEmpty("title", request.getTitle());
+        validateNotEmpty("content", request.getContent());
+        if (request.getTitle().length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title is too long (max " + MAX_TITLE_LENGTH + ")");
+        }
+        return request;
+    }
+
+    private static void validateNotEmpty(String field, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is empty");
+        }
+    }
+
+    //chunk 하나를 트랜잭션 하나로 저장. 실패하면 어떤 항목이 문제인지 찾기 위해 한건씩 다시 저장한다.
+    private void saveChunk(List<PendingArticle> chunk, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persistInTransaction(chunk);
+            result.imported += chunk.size();
+        } catch (RuntimeException chunkFailure) {
+            log.warn("article import chunk failed, retrying one by one : {}", chunkFailure.getMessage());
+            for (PendingArticle pending : chunk) {
+                try {
+                    persistInTransaction(List.of(pending.retry()));
+                    result.imported++;
+                } catch (RuntimeException e) {
+                    result.fail(pending.index(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void persistInTransaction(List<PendingArticle> articles) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (PendingArticle pending : articles) {
+                entityManager.persist(pending.article());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        for (PendingArticle pending : articles) {
+            Article article = pending.article();
+            articleSearchIndex.index(article.getId(), article.getTitle(), article.getAuthor(), article.getContent());
+        }
+    }
+
+    //원본 순번과 저장할 엔티티
+    private record PendingArticle(long index, Article article) {
+        //롤백된 엔티티는 id 등 상태가 남아있을 수 있으므로 새 엔티티로 다시 만든다.
+        PendingArticle retry() {
+            return new PendingArticle(index, Article.builder()
+                                                    .title(article.getTitle())
+                                                    .content(article.getContent())
+                                                    .author(article.getAuthor())
+                                                    .build());
+        }
+    }
+
+    private static class ImportResult {
+        private long imported;
+        private long failed;
+        private boolean completed;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        private void fail(long index, String message) {
+            failed++;
+            if (errors.size() < ArticleImportResponse.MAX_ERRORS) {
+                errors.add(new ImportError(index, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package kevin.study.springboot3.blog.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 글 조회수 write-behind 카운터
+ *
+ * 조회할 때마다 UPDATE 를 하면 인기글 한 row 에 쓰기 락이 몰린다.
+ * 조회시에는 메모리의 글별 LongAdder 만 증가시키고 (락 없음, 이미 카운터가 있으면 객체 생성도 없음)
+ * 주기적으로 글별 증가분을 jdbc batch UPDATE 한번으로 DB 에 더한다.
+ * DB 쓰기 횟수는 요청 수가 아니라 그 사이 조회된 글 수에 비례한다.
+ *
+ * 서버가 비정상 종료되면 마지막 flush 이후의 증가분은 유실된다. (정상 종료시에는 @PreDestroy 에서 flush)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleViewCounter {
+    private static final String UPDATE_VIEWS = "UPDATE article SET views = views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    //지난 flush 에서 map 에서 뺀 카운터. 빼기 직전에 카운터를 가져간 요청이 증가시킨 값을 다음 flush 에서 마저 반영한다.
+    private List<Map.Entry<Long, LongAdder>> retired = List.of();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void increment(Long id) {
+        LongAdder counter = counters.get(id);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(id, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    //스케줄러와 종료시 flush 가 겹치지 않도록 락을 건다. (조회 경로는 락을 쓰지 않음)
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushDeltas() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            collect(deltas, entry.getKey(), entry.getValue());
+        }
+
+        //한 주기 동안 조회가 없던 글의 카운터는 map 에서 뺀다. (조회된 적 있는 글이 계속 쌓이지 않도록)
+        List<Map.Entry<Long, LongAdder>> idle = new ArrayList<>();
+        counters.forEach((id, counter) -> {
+            if (!collect(deltas, id, counter) && counters.remove(id, counter)) {
+                idle.add(Map.entry(id, counter));
+            }
+        });
+        retired = idle;
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> args.add(new Object[]{delta, id}));
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_VIEWS, args);
+        } catch (DataAccessException e) {
+            //실패한 증가분은 카운터에 되돌려서 다음 flush 에 다시 시도한다.
+            log.warn("failed to flush article views ({} articles), retry next time", deltas.size(), e);
+            deltas.forEach((id, delta) -> counters.computeIfAbsent(id, key -> new LongAdder()).add(delta));
+        }
+    }
+
+    //카운터 값을 0 으로 만들면서 증가분을 모은다. 증가분이 없으면 false
+    private static boolean collect(Map<Long, Long> deltas, Long id, LongAdder counter) {
+        long delta = counter.sumThenReset();
+        if (delta == 0) {
+            return false;
+        }
+        deltas.merge(id, delta, Long::sum);
+        return true;
+    }
+}
@@ -2,81 +2,182 @@ package kevin.study.springboot3.blog.service;
 
 
 import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleCursor;
+import kevin.study.springboot3.blog.dto.ArticlePageResponse;
 import kevin.study.springboot3.blog.dto.ArticleRequest;
 import kevin.study.springboot3.blog.dto.ArticleResponse;
+import kevin.study.springboot3.blog.dto.ArticleSummaryResponse;
+import kevin.study.springboot3.blog.event.ArticleEvent;
+import kevin.study.springboot3.blog.event.ArticleEventBroadcaster;
+import kevin.study.springboot3.blog.repository.ArticleBodyRepository;
 import kevin.study.springboot3.blog.repository.BlogRepository;
+import kevin.study.springboot3.blog.search.ArticleSearchIndex;
+import kevin.study.springboot3.blog.trending.TrendingArticleTracker;
+import kevin.study.springboot3.config.CacheConfig;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BlogService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final BlogRepository blogRepository;
+    private final ArticleBodyRepository articleBodyRepository;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final TrendingArticleTracker trendingArticleTracker;
+    private final ArticleEventBroadcaster articleEventBroadcaster;
 
     @Transactional
     public Article save(ArticleRequest request, String userName) {
-        return blogRepository.save(request.toEntity(userName));
+        Article article = blogRepository.save(request.toEntity(userName));
+        afterCommit(() -> {
+            articleSearchIndex.index(article.getId(), article.getTitle(), article.getAuthor(), article.getContent());
+            articleEventBroadcaster.publish(ArticleEvent.created(article.getId(), article.getTitle(), article.getAuthor()));
+        });
+        return article;
     }
 
+    //cursor 기반 목록 조회. cursor 가 없으면 첫 페이지.
+    //limit + 1 건을 조회해서 다음 페이지가 있는지 판단한다.
     @Transactional(readOnly = true)
-    public List<ArticleResponse> findAll() {
-        List<ArticleResponse> responses = blogRepository.findAll()
-                                                        .stream()
-                                                        .map(article -> new ArticleResponse(article))
-                                                        .collect(Collectors.toList());
-        return responses;
+    public ArticlePageResponse findPage(String cursor, Integer limit) {
+        return findPage(null, cursor, limit);
     }
 
+    //author 가 있으면 그 작성자의 글만 조회한다.
+    @Transactional(readOnly = true)
+    public ArticlePageResponse findPage(String author, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        boolean byAuthor = author != null && !author.isBlank();
+
+        List<ArticleSummaryResponse> articles;
+        if (cursor == null || cursor.isBlank()) {
+            articles = byAuthor ? blogRepository.findFirstPageByAuthor(author, pageable)
+                                : blogRepository.findFirstPage(pageable);
+        } else {
+            ArticleCursor after = ArticleCursor.decode(cursor);
+            articles = byAuthor ? blogRepository.findPageAfterByAuthor(author, after.createdAt(), after.id(), pageable)
+                                : blogRepository.findPageAfter(after.createdAt(), after.id(), pageable);
+        }
+
+        String nextCursor = null;
+        if (articles.size() > pageSize) {
+            articles = articles.subList(0, pageSize);
+            ArticleSummaryResponse last = articles.get(pageSize - 1);
+            nextCursor = new ArticleCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new ArticlePageResponse(articles, nextCursor);
+    }
+
+    //limit 미지정시 기본값, 최대값 초과시 최대값으로 제한
+    private static int resolvePageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    //단건 조회 결과는 로컬 캐시에 저장한다.
+    //sync = true : 같은 id 로 동시에 캐시 miss 가 나도 DB 조회는 한번만 실행되고 나머지는 그 결과를 기다린다.
+    @Cacheable(cacheNames = CacheConfig.ARTICLE_CACHE, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public ArticleResponse findById(Long id) {
-        Article article = blogRepository.findById(id)
-                                        .orElseThrow(() -> new IllegalArgumentException("not found id : " + id));
+        Article article = blogRepository.findWithBodyById(id)
+                                        .orElseThrow(() -> notFound(id));
         return new ArticleResponse(article);
     }
 
+    //작성자 확인과 삭제를 DELETE 한번으로 처리한다. (Principal 의 유저이름 = 작성자)
+    //본문은 article_body 의 FK (ON DELETE CASCADE) 로 같이 삭제된다.
+    @CacheEvict(cacheNames = CacheConfig.ARTICLE_CACHE, key = "#id")
     @Transactional
     public void delete(Long id, Principal principal) {
-        Article article = blogRepository.findById(id)
-                                        .orElseThrow(() -> new IllegalArgumentException("not found id : " + id));
-        authorizeArticleAuthor_2(article, principal);
-        blogRepository.delete(article);
+        String username = principal.getName();
+        if (blogRepository.deleteByIdAndAuthor(id, username) == 0) {
+            throw writeFailure(id, username);
+        }
+        afterCommit(() -> {
+            articleSearchIndex.remove(id);
+            trendingArticleTracker.remove(id);
+            articleEventBroadcaster.publish(ArticleEvent.deleted(id));
+        });
     }
 
-
-
+    //작성자 확인, version 확인과 수정을 UPDATE 한번으로 처리한다. (securityContext 의 유저이름 = 작성자)
+    //version 은 필수. 클라이언트가 조회했던 version 이 아니면 (그 사이 다른 요청이 수정) 409
+    //본문은 글 수정이 성공한 경우에만 article_body 에 따로 UPDATE 한다.
+    //응답은 다시 조회하지 않고 요청 값과 올라간 version (요청 version + 1) 으로 만든다. (createdAt 은 비어있음)
+    @CacheEvict(cacheNames = CacheConfig.ARTICLE_CACHE, key = "#id")
     @Transactional
     public ArticleResponse update(Long id, ArticleRequest request) {
-        Article article = blogRepository.findById(id)
-                                        .orElseThrow(() -> new IllegalArgumentException("not found id : " + id));
-        authorizeArticleAuthor(article);
-        article.update(request.getTitle(), request.getContent());
-        return new ArticleResponse(article);
-    }
-
-
-    //현재 인증객체 securityContext의 유저이름과 article의 등록자 이름을 비교함.
-    //(자신의 article만 수정, 삭제 가능하도록)
-    private static void authorizeArticleAuthor(Article article){
+        if (request.getVersion() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "version is required");
+        }
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        if(!article.getAuthor().equals(username)){
-            throw new IllegalArgumentException("not authorized");
+        int updated = blogRepository.updateByIdAndAuthor(id, username, request.getVersion(),
+                request.getTitle(), Article.excerptOf(request.getContent()), LocalDateTime.now());
+        if (updated == 0) {
+            throw writeFailure(id, username);
         }
+        articleBodyRepository.updateContent(id, request.getContent());
+        afterCommit(() -> {
+            articleSearchIndex.index(id, request.getTitle(), username, request.getContent());
+            articleEventBroadcaster.publish(ArticleEvent.updated(id, request.getTitle(), username));
+        });
+
+        return new ArticleResponse(id, request.getTitle(), request.getContent(), username,
+                null, request.getVersion() + 1);
     }
 
-    //현재 인증객체 securityContext의 유저이름과 article의 등록자 이름을 비교함.
-    //2번째 방법. Principal 객체를 파라미터로 받아서 확인
-    private static void authorizeArticleAuthor_2(Article article, Principal principal){
-        String username = principal.getName();
-        if(!article.getAuthor().equals(username)){
-            throw new IllegalArgumentException("not authorized");
+    //트랜잭션이 커밋된 뒤에 실행한다. (롤백된 변경이 검색 색인 등 DB 밖의 상태에 반영되지 않도록)
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
 
+    //수정/삭제된 row 가 없을 때 원인을 구분한다. (실패한 경우에만 조회 쿼리 1번 추가)
+    //- 글이 없음 : 404 not found
+    //- 작성자가 다름 : 403 not authorized
+    //- 작성자는 같음 : 409 그 사이 다른 요청이 먼저 수정해서 version 이 바뀜
+    private ResponseStatusException writeFailure(Long id, String username) {
+        String author = blogRepository.findAuthorById(id)
+                                      .orElse(null);
+        if (author == null) {
+            return notFound(id);
+        }
+        if (!author.equals(username)) {
+            return new ResponseStatusException(HttpStatus.FORBIDDEN, "not authorized");
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT, "article was modified by another request : " + id);
+    }
+
+    private static ResponseStatusException notFound(Long id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "not found id : " + id);
+    }
 }
@@ -0,0 +1,144 @@
+package kevin.study.springboot3.blog.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 일괄등록 요청 본문을 항목(레코드) 단위로 하나씩 읽어서 JsonNode 로 돌려준다.
+ * - 첫 글자가 [ 이면 JSON 배열 : Jackson 스트리밍 파서로 최상위 배열의 항목을 하나씩 트리로 읽는다.
+ * - 아니면 NDJSON : 한 줄씩 잘라서 파싱한다. (빈 줄은 건너뜀)
+ *
+ * 항목의 문법 오류는 JsonProcessingException 으로 던진다.
+ * NDJSON 은 줄 단위로 잘라서 읽으므로 다음 줄부터 계속 읽을 수 있다.
+ * 배열은 파서가 문법 오류 이후의 위치를 보장하지 않으므로 (다음 항목의 시작을 알 수 없음) 거기서 읽기를 끝낸다. (stoppedOnError)
+ * 요청 본문 읽기 자체가 실패하면 (연결 끊김 등) JsonProcessingException 이 아닌 IOException 이 그대로 전달된다.
+ */
+class JsonRecordReader implements Closeable {
+    private static final int[] UTF8_BOM = {0xEF, 0xBB, 0xBF};
+
+    private final InputStream in;
+    private final ObjectMapper objectMapper;
+    //배열이면 파서, NDJSON 이면 null
+    private final JsonParser parser;
+    private boolean finished;
+    private boolean stoppedOnError;
+
+    JsonRecordReader(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+        this.in = new BufferedInputStream(inputStream);
+        this.objectMapper = objectMapper;
+        skipBom();
+        int first = peekNonWhitespace();
+        if (first == '[') {
+            this.parser = objectMapper.createParser(in);
+            parser.nextToken(); //START_ARRAY
+        } else {
+            this.parser = null;
+        }
+    }
+
+    //다음 항목. 더 없으면 null
+    JsonNode next() throws IOException {
+        if (parser != null) {
+            return nextItem();
+        }
+        while (!finished) {
+            byte[] line = nextLine();
+            if (!isBlank(line)) {
+                return objectMapper.readTree(line);
+            }
+        }
+        return null;
+    }
+
+    //더 읽을 항목이 없음 (끝까지 읽었거나, 배열에서 문법 오류가 나서 더 읽을 수 없음)
+    boolean isFinished() {
+        return finished;
+    }
+
+    //배열에서 문법 오류가 나서 끝까지 읽지 못함
+    boolean stoppedOnError() {
+        return stoppedOnError;
+    }
+
+    private JsonNode nextItem() throws IOException {
+        if (finished) {
+            return null;
+        }
+        try {
+            //] 없이 본문이 끝나면 파서가 JsonEOFException (문법 오류) 을 던진다.
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                finished = true;
+                return null;
+            }
+            return parser.readValueAsTree();
+        } catch (JsonProcessingException e) {
+            finished = true;
+            stoppedOnError = true;
+            throw e;
+        }
+    }
+
+    private byte[] nextLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+        }
+        if (b == -1) {
+            finished = true;
+        }
+        return line.toByteArray();
+    }
+
+    private void skipBom() throws IOException {
+        in.mark(UTF8_BOM.length);
+        for (int expected : UTF8_BOM) {
+            if (in.read() != expected) {
+                in.reset();
+                return;
+            }
+        }
+    }
+
+    //공백을 건너뛰고 첫 글자를 돌려준다. (첫 글자는 읽지 않은 상태로 남긴다)
+    private int peekNonWhitespace() throws IOException {
+        int b;
+        do {
+            in.mark(1);
+            b = in.read();
+        } while (b != -1 && Character.isWhitespace(b));
+        if (b == -1) {
+            finished = true;
+        } else {
+            in.reset();
+        }
+        return b;
+    }
+
+    private static boolean isBlank(byte[] record) {
+        for (byte b : record) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        }
+        in.close();
+    }
+}
@@ -0,0 +1,179 @@
+package kevin.study.springboot3.blog.trending;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 많이 읽힌 글(trending) 집계
+ *
+ * 글별로 정확히 세지 않고 count-min sketch(고정 크기 depth x width 카운터)에 조회를 더한다.
+ * 글 수와 상관없이 메모리는 sketch + 상위 후보(capacity 개)로 고정이고, 조회 1번에 depth 개의 카운터만 갱신한다.
+ *
+ * 최근 조회에 가중치를 주기 위해 forward decay 를 사용한다.
+ * 조회 시각 t 의 가중치는 exp(lambda * (t - landmark)) 이고, half-life 가 지날 때마다 옛날 조회의 비중이 절반이 된다.
+ * 모든 값에 같은 배율이 곱해져 있으므로 저장된 값끼리 그대로 비교해도 순위는 같다.
+ * 가중치가 너무 커지면 (double 범위) landmark 를 현재로 옮기고 값 전체를 다시 계산한다.
+ *
+ * 조회 경로는 락을 쓰지 않는다. (카운터는 CAS, 후보 목록 교체시에만 락)
+ */
+@Component
+public class TrendingArticleTracker {
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1 << 12; //4 x 4096 x 8byte = 128KB
+    //가중치가 이 값을 넘으면 landmark 를 옮긴다.
+    private static final double RESCALE_THRESHOLD = 1e100;
+
+    private final double lambdaPerNano;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock candidateLock = new ReentrantLock();
+
+    private volatile State state;
+
+    @Autowired
+    public TrendingArticleTracker(@Value("${app.trending.half-life:10m}") Duration halfLife,
+                                  @Value("${app.trending.capacity:100}") int capacity) {
+        this(halfLife, capacity, System::nanoTime);
+    }
+
+    TrendingArticleTracker(Duration halfLife, int capacity, LongSupplier nanoClock) {
+        this.lambdaPerNano = Math.log(2) / halfLife.toNanos();
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.state = new State(nanoClock.getAsLong());
+    }
+
+    //글 조회 1건 기록
+    public void record(Long id) {
+        long now = nanoClock.getAsLong();
+        State current = state;
+        double weight = Math.exp(lambdaPerNano * (now - current.landmark));
+        if (weight > RESCALE_THRESHOLD) {
+            current = rescale(current, now);
+            weight = Math.exp(lambdaPerNano * (now - current.landmark));
+        }
+
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, current.add(row * WIDTH + bucket(id, row), weight));
+        }
+        offer(current, id, estimate);
+    }
+
+    //최근 조회수(decay 적용) 가 높은 순서로 limit 개
+    public List<TrendingArticle> top(int limit) {
+        State current = state;
+        double scale = Math.exp(-lambdaPerNano * (nanoClock.getAsLong() - current.landmark));
+        List<TrendingArticle> result = new ArrayList<>(current.candidates.size());
+        current.candidates.forEach((id, score) -> result.add(new TrendingArticle(id, score * scale)));
+        result.sort(Comparator.comparingDouble(TrendingArticle::score).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    //삭제된 글은 후보에서 뺀다. (sketch 의 카운터는 시간이 지나면 decay 로 줄어든다)
+    public void remove(Long id) {
+        state.candidates.remove(id);
+    }
+
+    //이미 후보이면 점수만 갱신, 아니면 후보 중 최소 점수보다 클 때만 락을 잡고 교체한다.
+    private void offer(State current, Long id, double estimate) {
+        if (current.candidates.replace(id, estimate) != null) {
+            return;
+        }
+        if (current.candidates.size() >= capacity && estimate <= current.minScore) {
+            return;
+        }
+        candidateLock.lock();
+        try {
+            current.candidates.put(id, estimate);
+            if (current.candidates.size() > capacity) {
+                Map.Entry<Long, Double> min = null;
+                for (Map.Entry<Long, Double> entry : current.candidates.entrySet()) {
+                    if (min == null || entry.getValue() < min.getValue()) {
+                        min = entry;
+                    }
+                }
+                current.candidates.remove(min.getKey());
+            }
+            current.minScore = current.candidates.values()
+                                                 .stream()
+                                                 .mapToDouble(Double::doubleValue)
+                                                 .min()
+                                                 .orElse(0);
+        } finally {
+            candidateLock.unlock();
+        }
+    }
+
+    //landmark 를 now 로 옮긴 새 sketch 로 교체한다.
+    //복사 중에 이전 sketch 에 더해진 조회 몇 건은 빠질 수 있다. (half-life 의 수백배 주기로 한번 일어남)
+    private State rescale(State old, long now) {
+        candidateLock.lock();
+        try {
+            if (state != old) {
+                return state;
+            }
+            double scale = Math.exp(-lambdaPerNano * (now - old.landmark));
+            State rescaled = new State(now);
+            for (int i = 0; i < DEPTH * WIDTH; i++) {
+                rescaled.counters.set(i, Double.doubleToRawLongBits(old.get(i) * scale));
+            }
+            old.candidates.forEach((id, score) -> rescaled.candidates.put(id, score * scale));
+            rescaled.minScore = old.minScore * scale;
+            state = rescaled;
+            return rescaled;
+        } finally {
+            candidateLock.unlock();
+        }
+    }
+
+    //row 마다 다른 seed 로 id 를 섞어서 bucket 을 고른다. (splitmix64 finalizer)
+    private static int bucket(long id, int row) {
+        long z = id + (row + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) (z & (WIDTH - 1));
+    }
+
+    public record TrendingArticle(Long id, double score) {
+    }
+
+    private static final class State {
+        private final long landmark;
+        //double 값을 bit 로 저장 (AtomicDoubleArray 가 없으므로)
+        private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+        private final Map<Long, Double> candidates = new ConcurrentHashMap<>();
+        private volatile double minScore;
+
+        private State(long landmark) {
+            this.landmark = landmark;
+        }
+
+        private double get(int index) {
+            return Double.longBitsToDouble(counters.get(index));
+        }
+
+        //CAS 로 더하고 더한 후 값을 반환
+        private double add(int index, double delta) {
+            while (true) {
+                long bits = counters.get(index);
+                double updated = Double.longBitsToDouble(bits) + delta;
+                if (counters.compareAndSet(index, bits, Double.doubleToRawLongBits(updated))) {
+                    return updated;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package kevin.study.springboot3.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * 로컬 캐시 설정 (Caffeine)
+ * Caffeine 은 W-TinyLFU 정책을 사용하므로 자주 읽히는 글이 한번 읽힌 글에 밀려나지 않는다.
+ * recordStats() 를 켜두면 actuator 가 cache.gets(hit/miss), cache.evictions, cache.load.duration 메트릭을 등록한다.
+ *
+ * order = HIGHEST_PRECEDENCE : 캐시 프록시가 트랜잭션 프록시보다 바깥에서 동작하도록 한다.
+ * (캐시 hit 이면 트랜잭션을 시작하지 않고, @CacheEvict 는 트랜잭션 커밋 이후에 실행된다.)
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String ARTICLE_CACHE = "article";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.article.maximum-size:10000}") long maximumSize,
+                                     @Value("${app.cache.article.expire-after-write:10m}") Duration expireAfterWrite) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ARTICLE_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                                         .maximumSize(maximumSize)
+                                         .expireAfterWrite(expireAfterWrite)
+                                         .recordStats());
+        //null 은 캐시하지 않는다. (없는 글 id 는 매번 예외가 발생하므로 캐시될 일이 없음)
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
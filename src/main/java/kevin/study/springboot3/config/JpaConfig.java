@@ -0,0 +1,57 @@
+package kevin.study.springboot3.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import kevin.study.springboot3.config.jpa.PooledSequenceGenerator;
+import kevin.study.springboot3.config.jpa.RequestStatistics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate 설정
+ * application.yml 의 spring.jpa.properties.* 로도 같은 설정이 가능하지만,
+ * 코드에서 의존하는 설정이라 기본값을 여기서 지정한다.
+ */
+@Configuration
+public class JpaConfig {
+
+    //jdbc batch insert/update - 같은 SQL 을 batchSize 개씩 모아서 한번에 DB 로 보낸다.
+    //order_inserts/updates : 엔티티 종류별로 SQL 을 정렬해야 batch 로 묶인다.
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(@Value("${app.jpa.batch-size:100}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+
+    //2차 캐시, 쿼리 캐시 (User, RefreshToken). 캐시 구현체는 Caffeine JCache (region 별 크기, 만료시간은 application.conf)
+    //generate_statistics : 캐시 hit/miss 등 통계 수집. actuator 가 hibernate.* 메트릭으로 등록한다.
+    //통계 구현체는 요청별 값도 같이 세는 RequestStatistics 를 사용한다.
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(@Value("${app.jpa.statistics:true}") boolean statistics) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.putIfAbsent(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName());
+            //application.conf 에 없는 region (쿼리 캐시 timestamps 등) 은 기본 설정으로 만든다.
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.CREATE.getExternalRepresentation());
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, statistics);
+            properties.putIfAbsent(StatisticsInitiator.STATS_BUILDER, new RequestStatistics.Factory());
+        };
+    }
+
+    //시퀀스 id 생성기가 한번에 받아올 id 개수 (PooledSequenceGenerator)
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+            @Value("${app.jpa.id-allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+        return properties -> properties.putIfAbsent(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+    }
+}
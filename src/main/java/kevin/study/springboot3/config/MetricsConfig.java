@@ -0,0 +1,72 @@
+package kevin.study.springboot3.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import kevin.study.springboot3.user.config.jwt.TokenAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 메트릭 설정 (Micrometer -> /actuator/prometheus)
+ *
+ * - http.server.requests{uri, method, status} : 핸들러별 응답시간 (스프링부트 자동 수집)
+ * - app.security.token.filter, app.security.token.validation{result} : 토큰 인증 필터 (TokenAuthenticationFilter)
+ * - hikaricp.* : 커넥션 풀 (대기시간, 사용중/유휴 커넥션 수)
+ * - hibernate.* : Hibernate 통계 (JpaConfig 에서 generate_statistics 사용)
+ * - app.request.statements, app.request.entity.loads, app.request.flushes{uri}
+ *   : 요청 1번의 statement, 엔티티 로드, flush 수 분포 (RequestStatisticsFilter)
+ *
+ * 엔드포인트 노출 설정 기본값은 metrics.properties (application.yml 에 설정하면 그 값이 우선)
+ * /actuator/health 외의 엔드포인트는 인증이 필요하다. (WebOAuthSecurityConfig)
+ * Prometheus 는 Authorization: Bearer 토큰을 붙여서 수집한다. (scrape_configs 의 authorization)
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+    //percentile histogram 을 기록할 timer (Prometheus 에서 histogram_quantile 로 p99 등을 계산)
+    private static final Set<String> HISTOGRAM_TIMERS = Set.of(
+            "http.server.requests",
+            TokenAuthenticationFilter.FILTER_TIMER);
+
+    //histogram 버킷 범위. 범위를 좁혀서 timer 하나당 버킷 수를 줄인다.
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(10);
+    private static final Duration FILTER_MIN_EXPECTED = Duration.ofNanos(1_000);
+    private static final Duration FILTER_MAX_EXPECTED = Duration.ofMillis(100);
+
+    @Bean
+    public MeterFilter percentileHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !HISTOGRAM_TIMERS.contains(id.getName())) {
+                    return config;
+                }
+                boolean filter = TokenAuthenticationFilter.FILTER_TIMER.equals(id.getName());
+                return DistributionStatisticConfig.builder()
+                                                  .percentilesHistogram(true)
+                                                  .minimumExpectedValue((double) (filter ? FILTER_MIN_EXPECTED : MIN_EXPECTED).toNanos())
+                                                  .maximumExpectedValue((double) (filter ? FILTER_MAX_EXPECTED : MAX_EXPECTED).toNanos())
+                                                  .build()
+                                                  .merge(config);
+            }
+        };
+    }
+
+    //시큐리티 필터(토큰 필터의 유저 조회 등)에서 실행되는 쿼리도 포함하도록 가장 먼저 실행한다.
+    @Bean
+    public FilterRegistrationBean<RequestStatisticsFilter> requestStatisticsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new RequestStatisticsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
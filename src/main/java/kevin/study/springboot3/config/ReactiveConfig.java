@@ -0,0 +1,97 @@
+package kevin.study.springboot3.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import kevin.study.springboot3.blog.controller.ReactiveArticleHandler;
+import kevin.study.springboot3.blog.repository.ReactiveArticleRepository;
+import kevin.study.springboot3.user.config.jwt.TokenAuthenticationWebFilter;
+import kevin.study.springboot3.user.config.jwt.TokenProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 읽기 전용 리액티브(WebFlux + R2DBC) API 설정 - app.reactive.enabled=true 일 때만 적용
+ *
+ * 톰캣과 별도로 Netty 서버를 app.reactive.port (기본 8081) 로 띄운다. (ReactiveReadServer)
+ * 같은 톰캣에서 Flux 를 반환하면 결국 blocking 서블릿 I/O 로 쓰게 되므로 서버를 분리했다.
+ * 별도 서버라서 Spring Security 필터를 거치지 않는다. 같은 jwt 토큰을 TokenAuthenticationWebFilter 에서 검증한다.
+ *
+ * R2DBC ConnectionFactory 는 일부러 빈으로 등록하지 않는다.
+ * 빈으로 등록하면 스프링부트가 R2DBC 용 data.sql 초기화, 트랜잭션 매니저를 추가로 만들어서
+ * JPA 트랜잭션 매니저와 충돌한다. (R2dbc 자동설정은 Springboot3Application 에서 제외)
+ *
+ * 접속 정보
+ * - app.reactive.url 이 있으면 그 r2dbc url 사용 (예: r2dbc:mysql://localhost:3306/blog)
+ * - 없으면 JDBC datasource 가 H2 일 때 같은 DB 에 접속한다. (로컬 개발용)
+ *   r2dbc-h2 는 내부적으로 blocking 호출이라 event loop 를 막지 않도록 쿼리를 boundedElastic 스레드에서 실행한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveConfig {
+    private static final String H2_JDBC_PREFIX = "jdbc:h2:";
+    private static final String H2_R2DBC_PREFIX = "r2dbc:h2:";
+
+    @Bean(destroyMethod = "dispose")
+    public ReactiveArticleRepository reactiveArticleRepository(DataSourceProperties dataSourceProperties,
+                                                               @Value("${app.reactive.url:}") String url,
+                                                               @Value("${app.reactive.pool.max-size:10}") int maxSize) {
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory(dataSourceProperties, url))
+                                                                            .maxSize(maxSize)
+                                                                            .build());
+        Scheduler scheduler = usesH2(url) ? Schedulers.boundedElastic() : Schedulers.immediate();
+        return new ReactiveArticleRepository(pool, scheduler);
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveArticleRepository reactiveArticleRepository,
+                                                 TokenProvider tokenProvider,
+                                                 ObjectMapper objectMapper,
+                                                 @Value("${app.reactive.port:8081}") int port) {
+        //MVC 와 같은 ObjectMapper 로 응답을 만든다. (날짜 형식 등)
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                                                        .codecs(codecs -> codecs.defaultCodecs()
+                                                                                .jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                                                        .webFilter(new TokenAuthenticationWebFilter(tokenProvider))
+                                                        .build();
+        ReactiveArticleHandler handler = new ReactiveArticleHandler(reactiveArticleRepository);
+        return new ReactiveReadServer(RouterFunctions.toHttpHandler(handler.routes(), strategies), port);
+    }
+
+    private static boolean usesH2(String url) {
+        return !StringUtils.hasText(url) || url.startsWith(H2_R2DBC_PREFIX);
+    }
+
+    private static ConnectionFactory connectionFactory(DataSourceProperties properties, String url) {
+        if (StringUtils.hasText(url)) {
+            return ConnectionFactories.get(ConnectionFactoryOptions.parse(url)
+                                                                   .mutate()
+                                                                   .option(ConnectionFactoryOptions.USER, properties.determineUsername())
+                                                                   .option(ConnectionFactoryOptions.PASSWORD, properties.determinePassword())
+                                                                   .build());
+        }
+        String jdbcUrl = properties.determineUrl();
+        if (jdbcUrl == null || !jdbcUrl.startsWith(H2_JDBC_PREFIX)) {
+            throw new IllegalStateException("app.reactive.url is required when the datasource is not H2 : " + jdbcUrl);
+        }
+        return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                                                                .url(jdbcUrl.substring(H2_JDBC_PREFIX.length()))
+                                                                .username(properties.determineUsername())
+                                                                .password(properties.determinePassword())
+                                                                .build());
+    }
+}
@@ -0,0 +1,56 @@
+package kevin.study.springboot3.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/**
+ * 읽기 전용 리액티브 API 를 서비스하는 별도의 Netty 서버 (ReactiveConfig)
+ *
+ * 톰캣(Spring MVC)과 다른 포트(app.reactive.port)로 뜬다.
+ * 요청 처리와 응답 쓰기는 Netty event loop 스레드에서 non-blocking 으로 하고,
+ * 응답은 소켓에 쓸 수 있을 때만 다음 데이터를 요청하므로 느린 클라이언트가 스레드를 붙잡지 않는다.
+ *
+ * 애플리케이션 컨텍스트가 모두 뜬 뒤에 시작하고, 종료시 가장 먼저 멈춘다. (SmartLifecycle 기본 phase)
+ */
+public class ReactiveReadServer implements SmartLifecycle {
+    private final HttpHandler httpHandler;
+    private final int port;
+    private volatile WebServer webServer;
+
+    public ReactiveReadServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        WebServer server = new NettyReactiveWebServerFactory(port).getWebServer(httpHandler);
+        server.start();
+        this.webServer = server;
+    }
+
+    @Override
+    public void stop() {
+        WebServer server = this.webServer;
+        if (server != null) {
+            server.stop();
+            this.webServer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return webServer != null;
+    }
+
+    //실제로 열린 포트 (app.reactive.port=0 이면 임의의 포트)
+    public int getPort() {
+        WebServer server = this.webServer;
+        if (server == null) {
+            throw new IllegalStateException("reactive read server is not running");
+        }
+        return server.getPort();
+    }
+}
@@ -0,0 +1,58 @@
+package kevin.study.springboot3.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kevin.study.springboot3.config.jpa.RequestStatistics;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청 1번에 실행된 statement, 엔티티 로드, flush 수를 핸들러(uri)별 분포로 기록한다. (MetricsConfig)
+ * - app.request.statements{uri}
+ * - app.request.entity.loads{uri}
+ * - app.request.flushes{uri}
+ *
+ * uri 태그는 http.server.requests 와 같은 핸들러 패턴이다. (핸들러가 없으면 UNKNOWN)
+ * 비동기 처리(SSE, 스트리밍 응답)에서 다른 스레드가 실행한 쿼리는 포함되지 않는다.
+ */
+class RequestStatisticsFilter extends OncePerRequestFilter {
+    static final String STATEMENTS = "app.request.statements";
+    static final String ENTITY_LOADS = "app.request.entity.loads";
+    static final String FLUSHES = "app.request.flushes";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    RequestStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestStatistics.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+            summary(STATEMENTS, uri).record(RequestStatistics.statements());
+            summary(ENTITY_LOADS, uri).record(RequestStatistics.entityLoads());
+            summary(FLUSHES, uri).record(RequestStatistics.flushes());
+        }
+    }
+
+    //uri 별 meter 는 처음 한번만 등록되고 이후에는 registry 에서 찾아온다.
+    private DistributionSummary summary(String name, String uri) {
+        return DistributionSummary.builder(name)
+                                  .tag("uri", uri)
+                                  .register(meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package kevin.study.springboot3.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 정적 리소스의 Cache-Control 을 url 에 버전(md5)이 있는지에 따라 나눠서 설정한다. (StaticResourceConfig)
+ * - 버전 url (/js/article-{md5}.js) : 1년 + immutable (내용이 바뀌면 url 이 바뀜)
+ * - 그 외 url (/js/article.js, /img/google.png) : no-cache + ETag (매번 재검증, 바뀌지 않았으면 304)
+ *
+ * 리소스 핸들러의 캐시 설정은 url 패턴 단위라 같은 파일의 두 url 을 구분할 수 없어서 필터에서 설정한다.
+ * (Spring 6.0 의 CacheControl 에는 immutable 이 없어서 헤더 값에 직접 붙인다.)
+ */
+class StaticResourceCacheFilter extends ShallowEtagHeaderFilter {
+    //ContentVersionStrategy 가 붙이는 버전 : 파일명-{md5 32자리}.확장자
+    private static final Pattern VERSIONED_PATH = Pattern.compile(".*-[0-9a-f]{32}\\.[^/.]+$");
+    static final String VERSIONED_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+                                                              .cachePublic()
+                                                              .getHeaderValue() + ", immutable";
+    static final String UNVERSIONED_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (VERSIONED_PATH.matcher(request.getRequestURI()).matches()) {
+            //재검증하지 않으므로 ETag 를 만들지 않는다. (응답 버퍼링 없음)
+            response.setHeader(HttpHeaders.CACHE_CONTROL, VERSIONED_CACHE_CONTROL);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, UNVERSIONED_CACHE_CONTROL);
+        super.doFilterInternal(request, response, filterChain);
+    }
+}
@@ -0,0 +1,58 @@
+package kevin.study.springboot3.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+/**
+ * 정적 리소스(js, 이미지) 설정
+ *
+ * - 파일 내용의 md5 를 파일명에 붙인 url 로 내려준다. (/js/article.js -> /js/article-{md5}.js)
+ *   템플릿에서 th:src="@{/js/article.js}" 로 쓰면 ResourceUrlEncodingFilter 가 url 을 바꿔준다.
+ * - 내용이 바뀌면 url 이 바뀌므로 버전 url 은 1년 + immutable 로 캐시한다. (재방문시 요청 자체가 없음)
+ *   버전이 없는 url 은 no-cache + ETag 로 매번 재검증한다. (StaticResourceCacheFilter)
+ * - 빌드시 만들어 둔 .br / .gz 파일이 있으면 Accept-Encoding 에 맞춰 그대로 내려준다. (요청마다 압축하지 않음)
+ *   압축 파일은 build.gradle 의 processResources 에서 만든다.
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+    //static 하위 디렉토리 (url 경로와 같다)
+    public static final String[] STATIC_DIRECTORIES = {"js", "img"};
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : STATIC_DIRECTORIES) {
+            addVersionedResourceHandler(registry, directory);
+        }
+    }
+
+    //템플릿의 @{...} url 을 버전(md5)이 붙은 url 로 바꾼다.
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+    }
+
+    //Cache-Control 은 버전 url 인지에 따라 필터에서 설정한다. (핸들러에서는 설정하지 않음)
+    @Bean
+    public FilterRegistrationBean<StaticResourceCacheFilter> staticResourceCacheFilter() {
+        FilterRegistrationBean<StaticResourceCacheFilter> registration =
+                new FilterRegistrationBean<>(new StaticResourceCacheFilter());
+        for (String directory : STATIC_DIRECTORIES) {
+            registration.addUrlPatterns("/" + directory + "/*");
+        }
+        return registration;
+    }
+
+    private static void addVersionedResourceHandler(ResourceHandlerRegistry registry, String directory) {
+        registry.addResourceHandler("/" + directory + "/**")
+                .addResourceLocations("classpath:/static/" + directory + "/")
+                .resourceChain(true) //url <-> 파일 변환 결과를 캐시한다.
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
@@ -0,0 +1,56 @@
+package kevin.study.springboot3.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 가상 스레드(virtual thread) 실행 모드 - app.virtual-threads.enabled=true 일 때만 적용 (JDK 21 이상 필요)
+ * (./gradlew bootRun -PvirtualThreads 로 실행 가능)
+ *
+ * 서비스 로직이 모두 blocking JPA/JDBC 호출이라 DB 가 느려지면 톰캣 worker 스레드(기본 200개)가 먼저 고갈된다.
+ * 요청마다 가상 스레드를 쓰면 DB 응답을 기다리는 동안 carrier thread 를 반납하므로 스레드 수 제한이 없어진다.
+ * 동시에 DB 를 쓰는 요청 수는 여전히 커넥션 풀 크기로 제한된다.
+ *
+ * - 톰캣 요청 처리 스레드 -> 요청마다 가상 스레드
+ * - applicationTaskExecutor(@Async, StreamingResponseBody 등 MVC 비동기 처리) -> 작업마다 가상 스레드
+ *
+ * carrier thread pinning 주의 (synchronized 블록 안에서 blocking I/O 를 하면 가상 스레드가 carrier thread 를 놓지 못한다)
+ * - 애플리케이션 코드에는 synchronized 블록이 없다. (검색 색인 등은 java.util.concurrent 락 사용)
+ * - mysql-connector-java 8.0.x 는 소켓 I/O 를 connection 객체의 synchronized 블록 안에서 하므로 쿼리 실행 중 pinning 된다.
+ * - H2 도 내부적으로 synchronized 를 사용한다. (로컬 개발용)
+ * -Djdk.tracePinnedThreads=short 로 실행하면 pinning 이 발생한 위치가 로그로 출력된다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    //바이트코드는 17 로 컴파일하므로 JDK 21 API 는 리플렉션으로 호출한다.
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                                                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual threads require JDK 21 or later", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package kevin.study.springboot3.config.datasource;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * 요청별 SQL 실행 횟수, 시간 집계 - app.query-count.enabled=true 일 때만 적용 (기본 꺼짐)
+ * 모든 JDBC 호출이 proxy 를 거치게 되므로 개발, 테스트에서만 켠다. (운영 메트릭은 RequestStatisticsFilter)
+ *
+ * DataSource 빈을 datasource-proxy 로 감싸서 실행된 statement 수와 실행시간을 스레드별로 센다.
+ * (JPA, JdbcTemplate 등 DataSource 를 쓰는 모든 쿼리가 대상, 배치 실행은 1번으로 센다)
+ * QueryCountFilter 가 요청마다 값을 초기화하고 응답 헤더로 내려준다.
+ * 테스트에서는 QueryCountHolder 로 요청 1번의 쿼리 수를 확인한다. (N+1 등 쿼리 수가 늘어나면 테스트 실패)
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.query-count.enabled", havingValue = "true")
+public class QueryCountConfig {
+
+    //BeanPostProcessor 는 다른 빈보다 먼저 만들어져야 하므로 static
+    @Bean
+    public static BeanPostProcessor queryCountDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                                                 .countQuery()
+                                                 .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    //시큐리티 필터(OAuth2 로그인 성공 처리, 토큰 필터 등)에서 실행되는 쿼리도 포함하도록 가장 먼저 실행한다.
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter() {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package kevin.study.springboot3.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 요청 처리 중 실행된 SQL 수와 실행시간(ms)을 응답 헤더로 내려준다. (QueryCountConfig)
+ * - X-Query-Count : statement 수
+ * - X-Query-Time : statement 실행시간 합계 (ms)
+ *
+ * 헤더는 응답이 커밋되기 직전에 설정한다. (본문을 쓰기 시작하면 헤더를 바꿀 수 없으므로)
+ * 비동기 처리(SSE, 스트리밍 응답)에서 다른 스레드가 실행한 쿼리는 포함되지 않는다.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        //요청 시작시에만 초기화한다. (같은 스레드에서 요청이 끝난 뒤에도 값을 확인할 수 있도록)
+        QueryCountHolder.clear();
+        filterChain.doFilter(request, new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                addQueryCountHeaders(response);
+            }
+        });
+        //본문이 없거나 버퍼 크기보다 작아서 아직 커밋되지 않은 응답
+        if (!response.isCommitted()) {
+            addQueryCountHeaders(response);
+        }
+    }
+
+    private static void addQueryCountHeaders(HttpServletResponse response) {
+        QueryCount queryCount = QueryCountHolder.getGrandTotal();
+        response.setHeader(QUERY_COUNT_HEADER, String.valueOf(queryCount.getTotal()));
+        response.setHeader(QUERY_TIME_HEADER, String.valueOf(queryCount.getTime()));
+    }
+}
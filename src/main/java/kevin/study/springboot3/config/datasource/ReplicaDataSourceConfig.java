@@ -0,0 +1,75 @@
+package kevin.study.springboot3.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * primary / replica 라우팅 DataSource 설정 - app.datasource.replicas 가 설정된 경우에만 적용
+ * (설정하지 않으면 스프링부트 기본 DataSource 하나만 사용한다)
+ *
+ * primary 는 spring.datasource.*, spring.datasource.hikari.* 설정을 그대로 사용한다.
+ * 커넥션 풀은 DataSource 빈이 아니라 ReplicaRouter 가 가지고 있다가 종료시 닫는다.
+ * (DataSource 빈이 여러개면 JPA, data.sql 초기화 등 자동설정이 어느 것을 쓸지 결정하지 못함)
+ *
+ * 로컬 확인 : H2 는 복제 기능이 없으므로 replica url 에 primary 와 같은 DB 를 지정하면
+ * 별도 커넥션 풀로 라우팅되는 것과 메트릭(app.datasource.route) 을 확인할 수 있다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(DataSourceProperties dataSourceProperties,
+                                       ReplicaDataSourceProperties replicaProperties,
+                                       Environment environment,
+                                       MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                                                       .type(HikariDataSource.class)
+                                                       .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRouter.PRIMARY);
+
+        List<HikariDataSource> replicas = replicaProperties.getReplicas()
+                                                           .stream()
+                                                           .map(ReplicaDataSourceConfig::replicaDataSource)
+                                                           .toList();
+        for (int i = 0; i < replicas.size(); i++) {
+            replicas.get(i).setPoolName("replica-" + i);
+        }
+        //풀이 DataSource 빈이 아니라서 자동설정이 hikaricp.* 메트릭을 등록하지 않으므로 직접 등록한다. (pool 태그 = 풀 이름)
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        primary.setMetricsTrackerFactory(metricsTrackerFactory);
+        replicas.forEach(replica -> replica.setMetricsTrackerFactory(metricsTrackerFactory));
+        return new ReplicaRouter(primary, replicas, replicaProperties, meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaRouter));
+    }
+
+    private static HikariDataSource replicaDataSource(ReplicaDataSourceProperties.Replica replica) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                                                       .type(HikariDataSource.class)
+                                                       .url(replica.getUrl())
+                                                       .username(replica.getUsername())
+                                                       .password(replica.getPassword())
+                                                       .build();
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
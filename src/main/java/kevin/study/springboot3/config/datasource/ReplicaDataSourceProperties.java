@@ -0,0 +1,45 @@
+package kevin.study.springboot3.config.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본(replica) DB 설정. replicas 가 없으면 라우팅 없이 spring.datasource 하나만 사용한다.
+ *
+ * app:
+ *   datasource:
+ *     replicas:
+ *       - url: jdbc:mysql://replica1:3306/blog
+ *         username: blog
+ *         password: ...
+ *     read-your-writes-window: 5s
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties("app.datasource")
+public class ReplicaDataSourceProperties {
+    private List<Replica> replicas = new ArrayList<>();
+
+    //쓰기 트랜잭션을 실행한 유저의 읽기를 이 시간 동안 primary 로 보낸다. (복제 지연 동안 자기가 쓴 글이 안보이는 문제 방지, 0 이면 사용 안함)
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    //replica 상태 확인 주기, 연결 확인 timeout
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    @Setter
+    @Getter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,178 @@
+package kevin.study.springboot3.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 커넥션을 primary / replica 중 어디서 가져올지 결정한다. (ReplicaRoutingDataSource 가 사용)
+ *
+ * - 읽기 전용 트랜잭션(@Transactional(readOnly = true)) : 정상 상태인 replica 를 round-robin 으로 사용
+ *   (정상인 replica 가 없으면 primary)
+ * - 그 외 (쓰기 트랜잭션, 트랜잭션 없는 쿼리) : primary
+ * - read-your-writes : 쓰기 트랜잭션을 실행한 유저는 readYourWritesWindow 동안 읽기도 primary 로 보낸다.
+ *
+ * replica 상태는 healthCheckInterval 마다 커넥션을 가져와서 확인한다.
+ * 메트릭 : app.datasource.route{target, reason} (커넥션을 가져간 횟수), app.datasource.replica.healthy{replica}
+ */
+@Slf4j
+public class ReplicaRouter implements SchedulingConfigurer, DisposableBean {
+    public static final String PRIMARY = "primary";
+    private static final String ROUTE_METRIC = "app.datasource.route";
+
+    @Getter
+    private final HikariDataSource primary;
+    private final List<ReplicaTarget> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Duration healthCheckInterval;
+    private final int healthCheckTimeoutSeconds;
+
+    //최근 쓰기를 한 유저 (window 가 지나면 자동으로 빠진다). window 가 0 이면 null
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Counter readWriteCounter;
+    private final Counter readYourWritesCounter;
+    private final Counter noHealthyReplicaCounter;
+
+    public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                         ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.healthCheckInterval = properties.getHealthCheckInterval();
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds());
+
+        List<ReplicaTarget> targets = new ArrayList<>();
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            ReplicaTarget target = new ReplicaTarget("replica-" + i, replicaDataSources.get(i),
+                    routeCounter(meterRegistry, "replica-" + i, "read-only"));
+            Gauge.builder("app.datasource.replica.healthy", target, replica -> replica.healthy ? 1 : 0)
+                 .tag("replica", target.name)
+                 .register(meterRegistry);
+            targets.add(target);
+        }
+        this.replicas = Collections.unmodifiableList(targets);
+
+        Duration window = properties.getReadYourWritesWindow();
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                                                              .expireAfterWrite(window)
+                                                              .maximumSize(100_000)
+                                                              .build();
+
+        this.readWriteCounter = routeCounter(meterRegistry, PRIMARY, "read-write");
+        this.readYourWritesCounter = routeCounter(meterRegistry, PRIMARY, "read-your-writes");
+        this.noHealthyReplicaCounter = routeCounter(meterRegistry, PRIMARY, "no-healthy-replica");
+    }
+
+    //커넥션을 가져올 DataSource 의 key (AbstractRoutingDataSource 의 lookup key)
+    public String route() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (recentWriters != null && username != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+            readWriteCounter.increment();
+            return PRIMARY;
+        }
+        if (recentWriters != null && username != null && recentWriters.getIfPresent(username) != null) {
+            readYourWritesCounter.increment();
+            return PRIMARY;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaTarget replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.healthy) {
+                replica.counter.increment();
+                return replica.name;
+            }
+        }
+        noHealthyReplicaCounter.increment();
+        return PRIMARY;
+    }
+
+    //replica 상태 확인. 커넥션을 못 가져오거나 유효하지 않으면 다음 확인까지 라우팅에서 제외한다.
+    public void checkHealth() {
+        for (ReplicaTarget replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (replica.healthy != healthy) {
+                log.warn("{} is now {}", replica.name, healthy ? "healthy" : "unhealthy");
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public Map<Object, Object> getTargetDataSources() {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaTarget replica : replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        return targets;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::checkHealth, healthCheckInterval);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder(ROUTE_METRIC)
+                      .tag("target", target)
+                      .tag("reason", reason)
+                      .register(meterRegistry);
+    }
+
+    //로그인한 유저 이름 (스케줄러 등 요청 밖이거나 익명이면 null)
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static class ReplicaTarget {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final Counter counter;
+        //첫 상태 확인 전에는 정상으로 본다.
+        private volatile boolean healthy = true;
+
+        private ReplicaTarget(String name, HikariDataSource dataSource, Counter counter) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.counter = counter;
+        }
+    }
+}
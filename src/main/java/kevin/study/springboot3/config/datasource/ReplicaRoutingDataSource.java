@@ -0,0 +1,24 @@
+package kevin.study.springboot3.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 커넥션을 가져올 때마다 ReplicaRouter 가 고른 DataSource(primary 또는 replica) 로 연결한다.
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않으므로 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ * (첫 쿼리를 실행할 때 실제 커넥션을 가져온다)
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ReplicaRouter router;
+
+    ReplicaRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+        setTargetDataSources(router.getTargetDataSources());
+        setDefaultTargetDataSource(router.getPrimary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.route();
+    }
+}
@@ -0,0 +1,66 @@
+package kevin.study.springboot3.config.jpa;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 문자열 <-> 압축된 바이트 변환 (글 본문 등 긴 텍스트용)
+ * UTF-8 로 COMPRESSION_THRESHOLD 바이트 이상이면 gzip 으로 압축해서 저장하고, 짧으면 그대로 저장한다.
+ * 읽을 때는 gzip 헤더(0x1f 0x8b)로 압축 여부를 판단한다.
+ * UTF-8 문자열은 0x1f 다음에 0x8b 가 올 수 없으므로 압축하지 않은 값과 헷갈리지 않는다.
+ * (압축하지 않고 저장된 기존 데이터도 그대로 읽을 수 있다.)
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+    public static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        return attribute == null ? null : compress(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        return dbData == null ? null : decompress(dbData);
+    }
+
+    public static byte[] compress(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < COMPRESSION_THRESHOLD) {
+            return raw;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        //압축해도 줄지 않으면 (이미 압축된 데이터 등) 원본을 저장한다.
+        return out.size() < raw.length ? out.toByteArray() : raw;
+    }
+
+    public static String decompress(byte[] data) {
+        if (!isGzip(data)) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isGzip(byte[] data) {
+        return data.length >= 2
+                && data[0] == (byte) GZIPInputStream.GZIP_MAGIC
+                && data[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+}
@@ -0,0 +1,40 @@
+package kevin.study.springboot3.config.jpa;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * 엔티티 id 생성기 (pooled-lo 시퀀스)
+ * IDENTITY 전략은 INSERT 를 실행해야 id 를 알 수 있어서 엔티티마다 INSERT 가 바로 실행되고 jdbc batch 가 꺼진다.
+ * 시퀀스에서 allocation size 만큼 id 범위를 한번에 받아두고 메모리에서 나눠주면
+ * INSERT 를 flush 시점까지 미루고 batch 로 묶을 수 있다.
+ *
+ * - H2 : DB 시퀀스 사용 (create sequence ... increment by allocation size)
+ * - MySQL : 시퀀스가 없으므로 Hibernate 가 next_val 컬럼 하나짜리 테이블을 시퀀스처럼 사용한다.
+ *
+ * allocation size 는 JpaConfig 에서 app.jpa.id-allocation-size 프로퍼티로 설정한다. (기본 50)
+ * 이미 만들어진 DB 시퀀스/테이블의 증가값과 같아야 하므로, 운영 중 바꿀 때는 시퀀스도 같이 변경해야 한다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String STRATEGY = "kevin.study.springboot3.config.jpa.PooledSequenceGenerator";
+    public static final String ALLOCATION_SIZE_SETTING = "app.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService configurationService = serviceRegistry.getService(ConfigurationService.class);
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE_SETTING,
+                configurationService.getSettings(), DEFAULT_ALLOCATION_SIZE);
+
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
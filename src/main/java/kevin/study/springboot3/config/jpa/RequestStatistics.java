@@ -0,0 +1,87 @@
+package kevin.study.springboot3.config.jpa;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate 통계를 스레드별로도 센다. (요청 1번에 실행된 statement, 엔티티 로드, flush 수)
+ *
+ * Hibernate 가 전역 통계(hibernate.statements, hibernate.entities.loads, hibernate.flushes)를 올리는 시점에
+ * 현재 스레드의 값도 같이 올린다. 그래서 전역 메트릭과 같은 기준으로 센다.
+ * - statements : prepare 된 statement 수 (jdbc batch 는 1번)
+ * - entityLoads : DB 에서 읽은 엔티티 수 (2차 캐시, 영속성 컨텍스트에서 가져온 것은 제외)
+ * - flushes : 실제로 실행된 flush 수
+ *
+ * Hibernate 통계가 켜져 있어야 센다. (JpaConfig 의 app.jpa.statistics, 기본 true)
+ * 요청 단위 집계는 RequestStatisticsFilter 에서 한다.
+ */
+public final class RequestStatistics {
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    private RequestStatistics() {
+    }
+
+    //현재 스레드의 값을 0 으로 (요청 시작시)
+    public static void reset() {
+        Counts counts = COUNTS.get();
+        counts.statements = 0;
+        counts.entityLoads = 0;
+        counts.flushes = 0;
+    }
+
+    public static long statements() {
+        return COUNTS.get().statements;
+    }
+
+    public static long entityLoads() {
+        return COUNTS.get().entityLoads;
+    }
+
+    public static long flushes() {
+        return COUNTS.get().flushes;
+    }
+
+    //hibernate.stats.factory 로 등록한다. (JpaConfig)
+    public static class Factory implements StatisticsFactory {
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new ThreadCountingStatistics(sessionFactory);
+        }
+    }
+
+    private static class ThreadCountingStatistics extends StatisticsImpl {
+        //StatisticsImpl 이 Serializable 이라서 선언한다. (실제로 직렬화되지는 않음, -Xlint:serial 경고 방지)
+        private static final long serialVersionUID = 1L;
+
+        ThreadCountingStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void prepareStatement() {
+            super.prepareStatement();
+            COUNTS.get().statements++;
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            COUNTS.get().entityLoads++;
+        }
+
+        @Override
+        public void flush() {
+            super.flush();
+            COUNTS.get().flushes++;
+        }
+    }
+
+    //스레드 하나에서만 쓰므로 동기화하지 않는다.
+    private static class Counts {
+        private long statements;
+        private long entityLoads;
+        private long flushes;
+    }
+}
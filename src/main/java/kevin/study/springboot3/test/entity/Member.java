@@ -1,13 +1,19 @@
 package kevin.study.springboot3.test.entity;
 
 import jakarta.persistence.*;
+import kevin.study.springboot3.config.jpa.PooledSequenceGenerator;
 import lombok.Getter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
 @Getter
 public class Member {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "member_seq") //시퀀스로 id 를 미리 받아와서 insert 를 batch 로 묶을 수 있도록 함
+    @GenericGenerator(name = "member_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
     @Column(name="id", updatable = false)
     private Long id;
 
@@ -1,6 +1,7 @@
 package kevin.study.springboot3.user.config;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
 import kevin.study.springboot3.user.config.jwt.TokenAuthenticationFilter;
 import kevin.study.springboot3.user.config.jwt.TokenProvider;
 import kevin.study.springboot3.user.config.oauth.OAuth2AuthorizationRequestBasedOnCookieRepository;
@@ -9,8 +10,11 @@ import kevin.study.springboot3.user.config.oauth.OAuth2UserCustomService;
 import kevin.study.springboot3.user.repository.RefreshTokenRepository;
 import kevin.study.springboot3.user.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
@@ -30,13 +34,15 @@ public class WebOAuthSecurityConfig {
     private final TokenProvider tokenProvider;
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserService userService;
+    private final MeterRegistry meterRegistry;
 
     //스프링 시큐리티 비활성화 경로 설정
     @Bean
     public WebSecurityCustomizer configure() {
         return (web) -> web.ignoring()
                            .requestMatchers(toH2Console()) //h2console 페이지
-                           .requestMatchers("/static/**"); //정적 리소스 경로 (이미지, HTML 등)
+                           .requestMatchers("/static/**") //정적 리소스 경로 (이미지, HTML 등)
+                           .requestMatchers("/js/**", "/img/**"); //버전 url 로 내려주는 정적 리소스 (StaticResourceConfig)
     }
 
     //토큰 인증방식을 사용할 것이므로, 기존 폼로그인, 로그아웃 비활성화 시킨다.
@@ -64,9 +70,13 @@ public class WebOAuthSecurityConfig {
         http.addFilterBefore(tokenAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
 
         //토큰 재발급 요청 api url은 인증없이 접근 가능하도록 설정. 나머지 api url은 인증필요.
+        //"/api/*" 는 한 단계 경로만 매칭되므로 (/api/articles/export 등이 빠짐) "/api/**" 로 전체를 막고, 공개할 url 만 앞에 permitAll 로 둔다.
+        //actuator 도 health (로드밸런서 헬스체크) 만 공개하고 메트릭 등 나머지 엔드포인트는 인증필요.
         http.authorizeHttpRequests()
             .requestMatchers("/api/token").permitAll()
-            .requestMatchers("/api/*").authenticated()
+            .requestMatchers("/api/**").authenticated()
+            .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+            .requestMatchers(EndpointRequest.toAnyEndpoint()).authenticated()
             .anyRequest().permitAll();
 
         //oauth2 로그인 페이지 설정
@@ -83,11 +93,14 @@ public class WebOAuthSecurityConfig {
         http.logout()
             .logoutSuccessUrl("/login");
 
-        // "/api/**" 로 시작하는 url 인 경우 401 상태코드를 반환하도록 예외처리 ?
+        // "/api/**" 로 시작하는 url, actuator 엔드포인트인 경우 401 상태코드를 반환하도록 예외처리 (로그인 페이지로 보내지 않음)
         http.exceptionHandling()
             .defaultAuthenticationEntryPointFor(
                     new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
-                    new AntPathRequestMatcher("/api/**"));
+                    new AntPathRequestMatcher("/api/**"))
+            .defaultAuthenticationEntryPointFor(
+                    new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                    EndpointRequest.toAnyEndpoint());
 
         return http.build();
     }
@@ -99,9 +112,11 @@ public class WebOAuthSecurityConfig {
                 userService);
     }
 
+    //SSE 구독(GET /api/articles/events)만 access_token 쿼리 파라미터로도 인증한다. (브라우저 EventSource 용)
     @Bean
     public TokenAuthenticationFilter tokenAuthenticationFilter() {
-        return new TokenAuthenticationFilter(tokenProvider);
+        return new TokenAuthenticationFilter(tokenProvider, meterRegistry,
+                new AntPathRequestMatcher("/api/articles/events", HttpMethod.GET.name()));
     }
 
     @Bean
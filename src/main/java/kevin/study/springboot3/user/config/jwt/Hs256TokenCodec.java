@@ -0,0 +1,359 @@
+package kevin.study.springboot3.user.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HS256 jwt 토큰 인코딩/검증 (TokenProvider 에서 jjwt 대신 사용)
+ *
+ * 우리가 발급하는 토큰(iss, iat, exp, sub, id)만 다루는 전용 구현이다.
+ * - 키(SecretKeySpec)는 생성시 한번만 만들고, Mac 은 미리 init 해둔 원본을 스레드별로 복제해서 재사용한다.
+ *   (가상 스레드는 요청마다 새 스레드라 요청마다 복제하게 되지만 그래도 Mac.getInstance + init 보다 싸다)
+ * - 서명 비교는 MessageDigest.isEqual (비교 시간이 일치하는 바이트 수와 무관)
+ * - 클레임은 JSON 트리를 만들지 않고 평평한 객체(중첩 없음)만 직접 파싱한다. 중첩된 값이 있으면 잘못된 토큰으로 본다.
+ *
+ * jjwt 0.9.1 로 만든 토큰과 바이트 단위로 같은 토큰을 만든다. (기존 토큰은 그대로 검증되고, 새 토큰도 jjwt 로 검증된다)
+ * - 헤더 {"typ":"JWT","alg":"HS256"}, 클레임 순서 iss, iat, exp, sub, id
+ * - 시각은 초 단위 숫자, 값이 없는(null, 빈 문자열) 클레임은 생략
+ * - 문자열 이스케이프는 Jackson 기본 규칙과 같다.
+ * 검증 실패시 jjwt 와 같은 예외를 던진다. (서명 검증 후 만료 확인)
+ */
+public class Hs256TokenCodec {
+    public static final String ALGORITHM = "HS256";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final String HEADER_JSON = "{\"typ\":\"JWT\",\"alg\":\"" + ALGORITHM + "\"}";
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String ENCODED_HEADER = ENCODER.encodeToString(HEADER_JSON.getBytes(StandardCharsets.UTF_8));
+
+    private final Mac prototype;
+    private final ThreadLocal<Mac> macs;
+
+    //keyBytes : jjwt 의 문자열 키와 같게 쓰려면 TextCodec.BASE64 로 디코딩한 값을 넘긴다.
+    public Hs256TokenCodec(byte[] keyBytes) {
+        try {
+            this.prototype = Mac.getInstance(MAC_ALGORITHM);
+            this.prototype.init(new SecretKeySpec(keyBytes, MAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("invalid HS256 key", e);
+        }
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String encode(String issuer, Date issuedAt, Date expiration, String subject, Long id) {
+        StringBuilder json = new StringBuilder(128).append('{');
+        if (issuer != null && !issuer.isEmpty()) {
+            appendString(json, "iss", issuer);
+        }
+        if (issuedAt != null) {
+            appendNumber(json, "iat", issuedAt.getTime() / 1000);
+        }
+        if (expiration != null) {
+            appendNumber(json, "exp", expiration.getTime() / 1000);
+        }
+        if (subject != null && !subject.isEmpty()) {
+            appendString(json, "sub", subject);
+        }
+        if (id != null) {
+            appendNumber(json, "id", id);
+        }
+        json.append('}');
+
+        String signingInput = ENCODED_HEADER + '.' + ENCODER.encodeToString(json.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + ENCODER.encodeToString(signature);
+    }
+
+    //서명, 만료시각을 검증하고 클레임을 반환한다.
+    public Claims decode(String token, long nowMillis) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new MalformedJwtException("JWT strings must contain exactly 2 period characters.");
+        }
+        if (payloadEnd == token.length() - 1) {
+            throw new UnsupportedJwtException("Unsigned Claims JWTs are not supported.");
+        }
+        //우리가 만든 헤더면 파싱하지 않는다.
+        if (headerEnd != ENCODED_HEADER.length() || !token.startsWith(ENCODED_HEADER)) {
+            checkHeader(token.substring(0, headerEnd));
+        }
+
+        byte[] expected = macs.get().doFinal(token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+        byte[] actual = decodeBase64(token.substring(payloadEnd + 1));
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new SignatureException("JWT signature does not match locally computed signature.");
+        }
+
+        String payload = new String(decodeBase64(token.substring(headerEnd + 1, payloadEnd)), StandardCharsets.UTF_8);
+        Claims claims = Jwts.claims(new FlatJsonParser(payload).parseObject());
+        Date expiration = claims.getExpiration();
+        if (expiration != null && nowMillis > expiration.getTime()) {
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + expiration.toInstant());
+        }
+        Date notBefore = claims.getNotBefore();
+        if (notBefore != null && nowMillis < notBefore.getTime()) {
+            throw new PrematureJwtException(null, claims, "JWT must not be accepted before " + notBefore.toInstant());
+        }
+        return claims;
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " provider does not support clone", e);
+        }
+    }
+
+    private static void checkHeader(String encodedHeader) {
+        Map<String, Object> header = new FlatJsonParser(new String(decodeBase64(encodedHeader), StandardCharsets.UTF_8))
+                .parseObject();
+        Object algorithm = header.get("alg");
+        if (!ALGORITHM.equals(algorithm)) {
+            throw new UnsupportedJwtException("unsupported JWT algorithm : " + algorithm);
+        }
+    }
+
+    private static byte[] decodeBase64(String value) {
+        try {
+            return DECODER.decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("invalid base64url : " + e.getMessage(), e);
+        }
+    }
+
+    private static void appendNumber(StringBuilder json, String name, long value) {
+        appendName(json, name);
+        json.append(value);
+    }
+
+    private static void appendString(StringBuilder json, String name, String value) {
+        appendName(json, name);
+        appendQuoted(json, value);
+    }
+
+    private static void appendName(StringBuilder json, String name) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        appendQuoted(json, name);
+        json.append(':');
+    }
+
+    //Jackson 기본 이스케이프와 같게 : " \ 와 제어문자만 이스케이프 (\b \t \n \f \r 는 짧은 형식, 나머지는 대문자 16진수 u00XX 형식)
+    private static void appendQuoted(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\b' -> json.append("\\b");
+                case '\t' -> json.append("\\t");
+                case '\n' -> json.append("\\n");
+                case '\f' -> json.append("\\f");
+                case '\r' -> json.append("\\r");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * 평평한 JSON 객체 파서 (값은 문자열, 숫자, true/false/null 만 허용)
+     * 숫자는 Jackson 과 같게 int 범위면 Integer, 아니면 Long (더 크면 BigInteger), 소수는 Double
+     */
+    private static class FlatJsonParser {
+        private final String json;
+        private int position;
+
+        FlatJsonParser(String json) {
+            this.json = json;
+        }
+
+        Map<String, Object> parseObject() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+                return finish(values);
+            }
+            while (true) {
+                String name = parseString();
+                expect(':');
+                values.put(name, parseValue());
+                char next = next();
+                if (next == '}') {
+                    return finish(values);
+                }
+                if (next != ',') {
+                    throw malformed("expected ',' or '}'");
+                }
+            }
+        }
+
+        private Map<String, Object> finish(Map<String, Object> values) {
+            skipWhitespace();
+            if (position != json.length()) {
+                throw malformed("unexpected trailing content");
+            }
+            return values;
+        }
+
+        private Object parseValue() {
+            char c = peek();
+            return switch (c) {
+                case '"' -> parseString();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                case '{', '[' -> throw malformed("nested claims are not supported");
+                default -> parseNumber();
+            };
+        }
+
+        private Object literal(String text, Object value) {
+            if (!json.startsWith(text, position)) {
+                throw malformed("invalid literal");
+            }
+            position += text.length();
+            return value;
+        }
+
+        private Object parseNumber() {
+            int start = position;
+            boolean decimal = false;
+            while (position < json.length()) {
+                char c = json.charAt(position);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                position++;
+            }
+            String number = json.substring(start, position);
+            try {
+                if (decimal) {
+                    return Double.valueOf(number);
+                }
+                long value = Long.parseLong(number);
+                return value == (int) value ? Integer.valueOf((int) value) : Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                if (!decimal && !number.isEmpty()) {
+                    try {
+                        return new BigInteger(number);
+                    } catch (NumberFormatException ignored) {
+                        //아래에서 malformed
+                    }
+                }
+                throw malformed("invalid number : " + number);
+            }
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder value = null;
+            int start = position;
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return value == null ? json.substring(start, position - 1) : value.toString();
+                }
+                if (c == '\\') {
+                    if (value == null) {
+                        value = new StringBuilder(json.length() - start).append(json, start, position - 1);
+                    }
+                    value.append(unescape());
+                } else if (value != null) {
+                    value.append(c);
+                }
+            }
+            throw malformed("unterminated string");
+        }
+
+        private char unescape() {
+            if (position >= json.length()) {
+                throw malformed("unterminated escape");
+            }
+            char c = json.charAt(position++);
+            return switch (c) {
+                case '"', '\\', '/' -> c;
+                case 'b' -> '\b';
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'f' -> '\f';
+                case 'r' -> '\r';
+                case 'u' -> {
+                    if (position + 4 > json.length()) {
+                        throw malformed("invalid unicode escape");
+                    }
+                    try {
+                        char unicode = (char) Integer.parseInt(json, position, position + 4, 16);
+                        position += 4;
+                        yield unicode;
+                    } catch (NumberFormatException e) {
+                        throw malformed("invalid unicode escape");
+                    }
+                }
+                default -> throw malformed("invalid escape : \\" + c);
+            };
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw malformed("expected '" + expected + "'");
+            }
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private char peek() {
+            skipWhitespace();
+            if (position >= json.length()) {
+                throw malformed("unexpected end of JSON");
+            }
+            return json.charAt(position);
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private MalformedJwtException malformed(String message) {
+            return new MalformedJwtException("invalid JWT JSON at " + position + " : " + message);
+        }
+    }
+}
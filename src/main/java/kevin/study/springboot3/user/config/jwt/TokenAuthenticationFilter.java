@@ -1,14 +1,20 @@
 package kevin.study.springboot3.user.config.jwt;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * OncePerRequestFilter : 1번의 request에 filter 처리를 하는 클래스
@@ -16,30 +22,63 @@ import java.io.IOException;
  * securityContext 는 인증 객체를 저장하는 보관소임. 인증정보를 저장, 조회할 수 있다.
  * securityContext 객체를 저장하는 객체가 securityContextHolder.
  * Http Request 에서 액세스토큰값이 담긴 Authorization 헤더값을 가져온 뒤 엑세스토큰이 유효하다면 인증정보를 저장함.
+ *
+ * 브라우저 EventSource 는 헤더를 지정할 수 없으므로, queryTokenRequests 에 해당하는 요청(SSE 구독)만
+ * Authorization 헤더가 없을 때 access_token 쿼리 파라미터의 토큰도 받는다. (RFC 6750 2.3)
+ * 쿼리의 토큰은 접근 로그 등에 남을 수 있으므로 다른 요청에는 허용하지 않는다.
+ *
+ * 메트릭 (요청마다 meter 를 조회하지 않도록 생성시 미리 등록해둔다)
+ * - app.security.token.filter : 필터 자체의 처리시간 (토큰 검증 + 인증정보 설정, 다음 필터 실행시간은 제외)
+ * - app.security.token.validation{result} : 토큰 검증 결과별 횟수 (TokenValidationResult)
  */
-@RequiredArgsConstructor
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    public static final String FILTER_TIMER = "app.security.token.filter";
+    public static final String VALIDATION_COUNTER = "app.security.token.validation";
 
     private final TokenProvider tokenProvider;
+    private final Timer filterTimer;
+    private final Map<TokenValidationResult, Counter> validationCounters = new EnumMap<>(TokenValidationResult.class);
     private final static String HEADER_AUTHRIZATION = "Authorization";
     private final static String TOKEN_PREFIX = "Bearer ";
+    private final static String QUERY_TOKEN_PARAMETER = "access_token";
+
+    private final RequestMatcher queryTokenRequests;
+
+    public TokenAuthenticationFilter(TokenProvider tokenProvider, MeterRegistry meterRegistry,
+                                     RequestMatcher queryTokenRequests) {
+        this.tokenProvider = tokenProvider;
+        this.queryTokenRequests = queryTokenRequests;
+        this.filterTimer = Timer.builder(FILTER_TIMER)
+                                .description("TokenAuthenticationFilter processing time, excluding the rest of the chain")
+                                .register(meterRegistry);
+        for (TokenValidationResult result : TokenValidationResult.values()) {
+            validationCounters.put(result, Counter.builder(VALIDATION_COUNTER)
+                                                  .tag("result", result.tag())
+                                                  .register(meterRegistry));
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
         //요청 헤더에서 Authorization 값을 조회한다.
         String authorizationHeader = request.getHeader(HEADER_AUTHRIZATION);
 
         //접두사 제거
         String token = getAccessToken(authorizationHeader);
+        if (token == null && queryTokenRequests.matches(request)) {
+            token = request.getParameter(QUERY_TOKEN_PARAMETER);
+        }
 
-        //토큰 유효성 검사, 유효하면 인증정보 설정
-        if (tokenProvider.validToken(token)) {
-            SecurityContextHolder.getContext().setAuthentication(
-                    tokenProvider.getAuthentication(token)
-            );
+        //토큰 유효성 검사, 유효하면 인증정보 설정 (토큰은 한번만 파싱, 검증하고 검증된 토큰은 캐시에서 가져온다)
+        TokenVerification verification = tokenProvider.verify(token);
+        if (verification.isValid()) {
+            SecurityContextHolder.getContext().setAuthentication(verification.authentication());
         }
+        validationCounters.get(verification.result()).increment();
+        filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         filterChain.doFilter(request, response);
     }
 
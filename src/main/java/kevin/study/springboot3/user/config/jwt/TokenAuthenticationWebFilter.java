@@ -0,0 +1,41 @@
+package kevin.study.springboot3.user.config.jwt;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 리액티브 API(ReactiveReadServer) 용 토큰 인증 필터 - TokenAuthenticationFilter 와 같은 토큰을 검증한다.
+ * 별도 서버라서 Spring Security 필터 체인을 거치지 않으므로, 유효한 토큰이 없으면 여기서 401 로 응답한다.
+ * 토큰 검증은 CPU 작업(HMAC, 캐시 조회)뿐이라 event loop 스레드에서 바로 처리한다.
+ */
+public class TokenAuthenticationWebFilter implements WebFilter {
+    private final static String TOKEN_PREFIX = "Bearer ";
+
+    private final TokenProvider tokenProvider;
+
+    public TokenAuthenticationWebFilter(TokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!tokenProvider.verify(getAccessToken(authorizationHeader)).isValid()) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+
+    //authorizationHeader 의 접두사 제거("Bearer " 제거 )
+    private String getAccessToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith(TOKEN_PREFIX)) {
+            return authorizationHeader.substring(TOKEN_PREFIX.length());
+        }
+        return null;
+    }
+}
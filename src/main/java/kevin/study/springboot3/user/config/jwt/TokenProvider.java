@@ -1,31 +1,67 @@
 package kevin.study.springboot3.user.config.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.impl.TextCodec;
 import kevin.study.springboot3.user.domain.User;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.time.LocalDate;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * jwt 토큰 발급, 검증
+ *
+ * 검증된 토큰은 토큰의 SHA-256 digest 를 키로 만료시각(exp)까지 캐시한다. (verify)
+ * 같은 토큰으로 다시 요청하면 base64 디코딩, JSON 파싱, HMAC 검증 없이 캐시된 클레임을 사용한다.
+ * - 유효한 토큰만 캐시한다. (잘못된 토큰으로 캐시를 채울 수 없도록)
+ * - 토큰 원문이 아니라 digest 를 키로 써서 메모리에 토큰이 남지 않게 한다.
+ * - 서명 키는 생성시 한번만 디코딩한다. (jjwt 의 문자열 키는 base64 로 디코딩해서 쓰므로 같은 방식으로 미리 디코딩)
+ *
+ * 토큰 생성, 파싱은 jjwt 대신 Hs256TokenCodec 을 사용한다. (jjwt 로 만든 토큰과 같은 형식, 예외도 jjwt 예외를 그대로 사용)
+ */
 @Service
 public class TokenProvider {
+    public static final long DEFAULT_VERIFIED_CACHE_SIZE = 10_000;
+    private static final Set<SimpleGrantedAuthority> AUTHORITIES = Collections.singleton(
+            new SimpleGrantedAuthority("ROLE_USER"));
+
     private final String issuer;
-    private final String secretKey;
+    private final Hs256TokenCodec codec;
+    //검증된 토큰 캐시 (maximumSize 가 0 이면 캐시하지 않음)
+    private final Cache<String, Claims> verifiedTokens;
+
+    public TokenProvider(String issuer, String secretKey) {
+        this(issuer, secretKey, DEFAULT_VERIFIED_CACHE_SIZE);
+    }
 
+    @Autowired
     public TokenProvider(@Value("${jwt.issuer}") String issuer,
-                         @Value("${jwt.secretKey}") String secretKey) {
+                         @Value("${jwt.secretKey}") String secretKey,
+                         @Value("${jwt.verified-cache.maximum-size:" + DEFAULT_VERIFIED_CACHE_SIZE + "}") long verifiedCacheSize) {
         //@Value 어노테이션으로 applicationl.yml 의 프로퍼티 값 조회
         this.issuer = issuer;
-        this.secretKey = secretKey;
+        this.codec = new Hs256TokenCodec(TextCodec.BASE64.decode(secretKey));
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                          .maximumSize(verifiedCacheSize)
+                          .expireAfter(new UntilExpiration())
+                          .build()
+                : null;
     }
 
     public String generateToken(User user, Duration expiredAt) {
@@ -35,37 +71,54 @@ public class TokenProvider {
         return makeToken(expiry, user);
     }
 
-    //jwt 토큰 생성 - 헤더,내용,서명에 들어갈 정보 입력 (인자 : 만료시간, 유저정보)
+    //jwt 토큰 생성 - 헤더(typ : JWT, alg : HS256), 내용, 서명 (인자 : 만료시간, 유저정보)
+    //내용 : iss, iat, exp (토큰 유효일시), sub (user.email - 유저 식별용), id (user.id - 유저 식별용)
     private String makeToken(Date expiry, User user) {
-        return Jwts.builder()
-                   .setHeaderParam(Header.TYPE, Header.JWT_TYPE) //헤더 : jwt로 설정
-                   .setIssuer(issuer)
-                   .setIssuedAt(new Date()) // 내용 iat
-                   .setExpiration(expiry) // 내용 exp (토큰 유효일시)
-                   .setSubject(user.getEmail()) // 내용 sub (user.email 로 설정 - 유저 식별용)
-                   .claim("id", user.getId()) // 클레임 "id" 로 user.id 설정 (유저 식별용)
-                   .signWith(SignatureAlgorithm.HS256, secretKey) // 서명 : secretKey 로 HS256 방식으로 암호화
-                   .compact();
+        return codec.encode(issuer, new Date(), expiry, user.getEmail(), user.getId());
     }
 
     //jwt 토큰 유효성 검증
     public boolean validToken(String token) {
+        return verify(token).isValid();
+    }
+
+    //jwt 토큰 유효성 검증 - 실패 사유까지 반환 (메트릭 집계용)
+    public TokenValidationResult validate(String token) {
+        return verify(token).result();
+    }
+
+    //토큰을 한번만 파싱, 검증해서 결과와 인증정보를 같이 반환한다. (요청마다 인증 필터에서 사용)
+    public TokenVerification verify(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenVerification.failed(TokenValidationResult.MISSING);
+        }
+        String key = verifiedTokens == null ? null : digest(token);
+        Claims claims = key == null ? null : verifiedTokens.getIfPresent(key);
+        //캐시 만료는 비동기로 정리되므로 만료시각을 한번 더 확인한다.
+        if (claims != null && claims.getExpiration().getTime() > System.currentTimeMillis()) {
+            return new TokenVerification(TokenValidationResult.VALID, claims, authentication(claims, token));
+        }
         try {
-            Jwts.parser()
-                .setSigningKey(secretKey)
-                .parseClaimsJws(token);
+            claims = getClaims(token);
+        } catch (ExpiredJwtException e) {
+            return TokenVerification.failed(TokenValidationResult.EXPIRED);
+        } catch (SignatureException e) {
+            return TokenVerification.failed(TokenValidationResult.BAD_SIGNATURE);
+        } catch (UnsupportedJwtException e) {
+            return TokenVerification.failed(TokenValidationResult.UNSUPPORTED);
         } catch (Exception e) {
-            return false; //exception 발생시 유효하지 않은 토큰으로 판단.
+            return TokenVerification.failed(TokenValidationResult.MALFORMED); //그 외 exception 은 형식이 잘못된 토큰으로 판단.
         }
-        return true;
+        //만료시각이 없는 토큰은 캐시하지 않는다.
+        if (key != null && claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return new TokenVerification(TokenValidationResult.VALID, claims, authentication(claims, token));
     }
 
     //토큰에서 클레임을 추출 (토큰에서 유저정보를 식별하기 위해)
     private Claims getClaims(String token) {
-        return Jwts.parser()
-                   .setSigningKey(secretKey)
-                   .parseClaimsJws(token)
-                   .getBody();
+        return codec.decode(token, System.currentTimeMillis());
     }
 
     //토큰 클레임에서 id(userId) 조회
@@ -76,15 +129,45 @@ public class TokenProvider {
 
     //토큰 기반으로 인증정보를 가져오는 메소드
     public Authentication getAuthentication(String token) {
-        Claims claims = getClaims(token);
-
-        Set<SimpleGrantedAuthority> authorities = Collections.singleton(
-                new SimpleGrantedAuthority("ROLE_USER"));
+        return authentication(getClaims(token), token);
+    }
 
+    //인증정보는 요청마다 새로 만든다. (Authentication 은 수정 가능한 객체라 요청끼리 공유하지 않음)
+    private static Authentication authentication(Claims claims, String token) {
         //첫번째 인자는 만든 User클래스가 아니라, security의 User클래스!
         return new UsernamePasswordAuthenticationToken(
-                new org.springframework.security.core.userdetails.User(claims.getSubject(), "", authorities),
-                token, authorities);
+                new org.springframework.security.core.userdetails.User(claims.getSubject(), "", AUTHORITIES),
+                token, AUTHORITIES);
+    }
+
+    //캐시 키 : 토큰의 SHA-256 (base64)
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                                       .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //캐시 항목은 토큰의 만료시각(exp)까지만 유지한다.
+    private static class UntilExpiration implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
 
@@ -0,0 +1,23 @@
+package kevin.study.springboot3.user.config.jwt;
+
+/**
+ * 토큰 검증 결과 (app.security.token.validation 메트릭의 result 태그)
+ */
+public enum TokenValidationResult {
+    VALID,
+    //Authorization 헤더가 없거나 Bearer 토큰이 아님
+    MISSING,
+    //만료된 토큰
+    EXPIRED,
+    //서명이 맞지 않음 (다른 키로 서명되었거나 변조됨)
+    BAD_SIGNATURE,
+    //JWT 형식이 아님
+    MALFORMED,
+    //서명되지 않은 토큰 등 지원하지 않는 형식
+    UNSUPPORTED;
+
+    //메트릭 태그 값
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
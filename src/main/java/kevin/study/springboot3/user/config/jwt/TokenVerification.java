@@ -0,0 +1,20 @@
+package kevin.study.springboot3.user.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+
+/**
+ * 토큰 검증 결과 (TokenProvider.verify)
+ * 유효한 토큰이면 클레임과 인증정보를 같이 담고 있다. (토큰을 다시 파싱하지 않고 사용)
+ * 클레임은 캐시된 값을 같이 쓰므로 수정하면 안된다.
+ */
+public record TokenVerification(TokenValidationResult result, Claims claims, Authentication authentication) {
+
+    static TokenVerification failed(TokenValidationResult result) {
+        return new TokenVerification(result, null, null);
+    }
+
+    public boolean isValid() {
+        return result == TokenValidationResult.VALID;
+    }
+}
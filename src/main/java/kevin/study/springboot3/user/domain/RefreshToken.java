@@ -2,7 +2,13 @@ package kevin.study.springboot3.user.domain;
 
 
 import jakarta.persistence.*;
+import kevin.study.springboot3.config.jpa.PooledSequenceGenerator;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * 리프레쉬 토큰은 데이터베이스에 저장하는 정보이므로
@@ -10,9 +16,16 @@ import lombok.Getter;
  */
 @Entity
 @Getter
+//2차 캐시 - 토큰 재발급 때마다 조회된다. 수정되면 커밋 후 캐시도 갱신된다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RefreshToken.CACHE_REGION)
 public class RefreshToken {
+    public static final String CACHE_REGION = "refresh-token";
+    public static final String QUERY_CACHE_REGION = "refresh-token-query";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "refresh_token_seq") //시퀀스로 id 를 미리 받아와서 insert 를 batch 로 묶을 수 있도록 함
+    @GenericGenerator(name = "refresh_token_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "refresh_token_seq"))
     @Column(name = "id", updatable = false)
     private Long id;
 
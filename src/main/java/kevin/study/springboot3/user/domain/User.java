@@ -1,10 +1,18 @@
 package kevin.study.springboot3.user.domain;
 
 import jakarta.persistence.*;
+import kevin.study.springboot3.config.jpa.PooledSequenceGenerator;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,16 +22,24 @@ import java.util.List;
 
 @Table(name = "users")
 @Entity
+//2차 캐시 - id, 이메일(natural id) 로 조회시 DB 를 거치지 않는다. 수정되면 커밋 후 캐시도 갱신된다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 //스프링 시큐리티의 UserDetails 를 구현
 public class User implements UserDetails {
+    public static final String CACHE_REGION = "user";
+    public static final String NATURAL_ID_CACHE_REGION = "user-natural-id";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "users_seq") //시퀀스로 id 를 미리 받아와서 insert 를 batch 로 묶을 수 있도록 함
+    @GenericGenerator(name = "users_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "users_seq"))
     @Column(updatable = false)
     private Long id;
 
+    @NaturalId //이메일은 바뀌지 않는 유저 식별값
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -1,12 +1,27 @@
 package kevin.study.springboot3.user.repository;
 
+import jakarta.persistence.QueryHint;
 import kevin.study.springboot3.user.domain.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
+//조회 결과(id)는 쿼리 캐시, 엔티티는 2차 캐시에서 가져온다.
+//refresh_token 테이블에 변경이 생기면 쿼리 캐시는 자동으로 무효화된다.
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = RefreshToken.QUERY_CACHE_REGION)
+    })
     Optional<RefreshToken> findByRefreshToken(String refreshToken);
 
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = RefreshToken.QUERY_CACHE_REGION)
+    })
     Optional<RefreshToken> findByUserId(Long userId);
 }
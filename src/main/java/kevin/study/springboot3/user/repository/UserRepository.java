@@ -3,8 +3,6 @@ package kevin.study.springboot3.user.repository;
 import kevin.study.springboot3.user.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+//findByEmail 은 UserRepositoryImpl 에서 natural id 캐시를 사용해서 구현한다.
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 }
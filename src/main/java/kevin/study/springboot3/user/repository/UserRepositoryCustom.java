@@ -0,0 +1,9 @@
+package kevin.study.springboot3.user.repository;
+
+import kevin.study.springboot3.user.domain.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,27 @@
+package kevin.study.springboot3.user.repository;
+
+import jakarta.persistence.EntityManager;
+import kevin.study.springboot3.user.domain.User;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * 이메일로 유저 조회 (natural id 조회)
+ * 파생 쿼리(where email = ?)는 매번 DB 를 조회하지만, natural id 로 조회하면
+ * 이메일 -> id 캐시(user-natural-id)와 엔티티 캐시(user)를 차례로 확인하고 둘다 있으면 DB 를 조회하지 않는다.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                            .bySimpleNaturalId(User.class)
+                            .loadOptional(email);
+    }
+}
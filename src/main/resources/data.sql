@@ -1,5 +1,9 @@
-INSERT INTO USERS(email, password) VALUES ('test@naver.com','$2a$10$UTdnBjWGm.MOGSCiA8wnxeGda1BEaaIC/1S74yabcoRIDvMt7ze/K');
+INSERT INTO USERS(id, email, password) VALUES (NEXT VALUE FOR users_seq, 'test@naver.com','$2a$10$UTdnBjWGm.MOGSCiA8wnxeGda1BEaaIC/1S74yabcoRIDvMt7ze/K');
 
-INSERT INTO article (title, content, author, created_at, updated_at) VALUES ('안녕하세요','반갑습니다', 'user1', NOW(), NOW());
-INSERT INTO article (title, content, author, created_at, updated_at) VALUES ('사랑합니다','사랑둥이떠', 'user2', NOW(), NOW());
-INSERT INTO article (title, content, author, created_at, updated_at) VALUES ('좋아합니다.','귀요우미떠어', 'user3', NOW(), NOW());
\ No newline at end of file
+-- 글을 먼저 넣고 본문(article_body)은 방금 만든 글 id 를 PK 로 쓴다. (짧은 본문은 압축하지 않고 UTF-8 그대로 저장)
+INSERT INTO article (id, title, excerpt, author, created_at, updated_at, version, views) VALUES (NEXT VALUE FOR article_seq, '안녕하세요','반갑습니다', 'user1', NOW(), NOW(), 0, 0);
+INSERT INTO article_body (article_id, content) VALUES (CURRENT VALUE FOR article_seq, STRINGTOUTF8('반갑습니다'));
+INSERT INTO article (id, title, excerpt, author, created_at, updated_at, version, views) VALUES (NEXT VALUE FOR article_seq, '사랑합니다','사랑둥이떠', 'user2', NOW(), NOW(), 0, 0);
+INSERT INTO article_body (article_id, content) VALUES (CURRENT VALUE FOR article_seq, STRINGTOUTF8('사랑둥이떠'));
+INSERT INTO article (id, title, excerpt, author, created_at, updated_at, version, views) VALUES (NEXT VALUE FOR article_seq, '좋아합니다.','귀요우미떠어', 'user3', NOW(), NOW(), 0, 0);
+INSERT INTO article_body (article_id, content) VALUES (CURRENT VALUE FOR article_seq, STRINGTOUTF8('귀요우미떠어'));
@@ -0,0 +1,22 @@
+-- IDENTITY(AUTO_INCREMENT) -> 시퀀스 id 생성기(PooledSequenceGenerator) 전환용 MySQL 스크립트
+-- 애플리케이션 배포 전에 한번 수동으로 실행한다. (H2 인메모리 DB 는 구동시 새로 만들어지므로 필요 없음)
+--
+-- MySQL 에는 시퀀스가 없어서 Hibernate 는 next_val 컬럼 하나짜리 테이블을 시퀀스로 사용한다.
+-- pooled-lo 방식은 next_val 값부터 allocation size(기본 50) 개의 id 를 사용하므로
+-- 기존 최대 id + 1 로 시작하면 기존 데이터와 겹치지 않는다.
+
+CREATE TABLE article_seq (next_val BIGINT);
+INSERT INTO article_seq SELECT COALESCE(MAX(id), 0) + 1 FROM article;
+ALTER TABLE article MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE users_seq (next_val BIGINT);
+INSERT INTO users_seq SELECT COALESCE(MAX(id), 0) + 1 FROM users;
+ALTER TABLE users MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE refresh_token_seq (next_val BIGINT);
+INSERT INTO refresh_token_seq SELECT COALESCE(MAX(id), 0) + 1 FROM refresh_token;
+ALTER TABLE refresh_token MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE member_seq (next_val BIGINT);
+INSERT INTO member_seq SELECT COALESCE(MAX(id), 0) + 1 FROM member;
+ALTER TABLE member MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,4 @@
+-- 글 조회수 컬럼 추가 (ArticleViewCounter 가 주기적으로 증가분을 더한다)
+-- 애플리케이션 배포 전에 한번 수동으로 실행한다. (H2 인메모리 DB 는 구동시 새로 만들어지므로 필요 없음)
+
+ALTER TABLE article ADD COLUMN views BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+-- 글 본문을 article.content(VARCHAR 255) 에서 article_body 테이블(LONGBLOB)로 분리하고, 목록용 excerpt 컬럼을 추가한다.
+-- 애플리케이션 배포 전에 한번 수동으로 실행한다. (H2 인메모리 DB 는 구동시 새로 만들어지므로 필요 없음)
+--
+-- 기존 본문은 압축하지 않고 UTF-8 그대로 옮긴다. CompressedTextConverter 는 gzip 헤더가 없으면 그대로 읽으므로
+-- 기존 본문은 수정될 때 (1KB 이상이면) 압축된다.
+-- article_body 의 PK 는 글 id (article_id) 이고, 글이 삭제되면 본문도 같이 삭제된다. (ON DELETE CASCADE)
+
+CREATE TABLE article_body (
+    article_id BIGINT   NOT NULL PRIMARY KEY,
+    content    LONGBLOB NOT NULL,
+    CONSTRAINT fk_article_body_article FOREIGN KEY (article_id) REFERENCES article (id) ON DELETE CASCADE
+);
+
+INSERT INTO article_body (article_id, content) SELECT id, CAST(CONVERT(content USING utf8mb4) AS BINARY) FROM article;
+
+ALTER TABLE article
+    ADD COLUMN excerpt VARCHAR(100);
+
+UPDATE article SET excerpt = LEFT(content, 100);
+
+ALTER TABLE article
+    MODIFY excerpt VARCHAR(100) NOT NULL,
+    DROP COLUMN content;
@@ -0,0 +1,12 @@
+-- 작성자별 목록 조회 (GET /api/articles?author=) 용 인덱스.
+-- 애플리케이션 배포 전에 한번 수동으로 실행한다. (H2 인메모리 DB 는 엔티티의 @Index 로 만들어진다)
+--
+-- 실행 후 아래 쿼리의 실행계획이 type = range, key = idx_article_author_created_at_id 이고
+-- Extra 에 Using filesort 가 없는지 확인한다. (인덱스를 역순으로 읽으면 Backward index scan 으로 표시됨)
+--
+-- EXPLAIN SELECT id, title, author, created_at, updated_at, excerpt FROM article
+--  WHERE author = 'user@gmail.com'
+--    AND (created_at < NOW() OR (created_at = NOW() AND id < 100))
+--  ORDER BY created_at DESC, id DESC LIMIT 21;
+
+CREATE INDEX idx_article_author_created_at_id ON article (author, created_at, id);
@@ -26,9 +26,13 @@ if (modifyButton) {
         let params = new URLSearchParams(location.search);
         let id = params.get('id');
 
+        // 수정 화면을 열 때 조회한 version 을 같이 보낸다. (필수 값. 없으면 400, 그 사이 다른 곳에서 수정했으면 409)
+        // 값이 비어있으면 0 이 아니라 null 로 보낸다. (0 으로 보내면 409 로 잘못 처리된다)
+        let version = document.getElementById('article-version').value;
         body = JSON.stringify({
             title: document.getElementById('title').value,
-            content: document.getElementById('content').value
+            content: document.getElementById('content').value,
+            version: version ? Number(version) : null
         })
 
         function success() {
@@ -36,7 +40,17 @@ if (modifyButton) {
             location.replace(`/articles/${id}`);
         }
 
-        function fail() {
+        function fail(response) {
+            if (response && response.status === 400) {
+                alert('글 정보가 오래되었습니다. 수정 화면을 다시 불러옵니다.');
+                location.replace(`/new-article?id=${id}`);
+                return;
+            }
+            if (response && response.status === 409) {
+                alert('다른 곳에서 먼저 수정된 글입니다. 최신 글을 다시 불러옵니다.');
+                location.replace(`/new-article?id=${id}`);
+                return;
+            }
             alert('수정 실패했습니다.');
             location.replace(`/articles/${id}`);
         }
@@ -123,7 +137,7 @@ function httpRequest(method, url, body, success, fail) {
                 })
                 .catch(error => fail());
         } else {
-            return fail();
+            return fail(response);
         }
     });
 }
\ No newline at end of file
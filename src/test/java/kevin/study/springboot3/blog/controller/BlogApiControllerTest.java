@@ -1,9 +1,20 @@
 package kevin.study.springboot3.blog.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import kevin.study.springboot3.blog.domain.Article;
 import kevin.study.springboot3.blog.dto.ArticleRequest;
+import kevin.study.springboot3.blog.event.ArticleEvent;
+import kevin.study.springboot3.blog.event.ArticleEventBroadcaster;
 import kevin.study.springboot3.blog.repository.BlogRepository;
+import kevin.study.springboot3.blog.search.ArticleSearchIndexLoader;
+import kevin.study.springboot3.blog.service.ArticleExportService;
+import kevin.study.springboot3.blog.service.BlogService;
+import kevin.study.springboot3.config.CacheConfig;
+import kevin.study.springboot3.config.datasource.QueryCounter;
+import kevin.study.springboot3.config.jwt.JwtFactory;
+import kevin.study.springboot3.user.config.jwt.JwtProperties;
 import kevin.study.springboot3.user.domain.User;
 import kevin.study.springboot3.user.repository.UserRepository;
 import org.junit.jupiter.api.Assertions;
@@ -14,27 +25,48 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.WebApplicationContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.query-count.enabled=true") //QueryCounter, 쿼리 수 헤더 사용
 @AutoConfigureMockMvc
 @Transactional
 class BlogApiControllerTest {
@@ -54,6 +86,30 @@ class BlogApiControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ArticleExportService articleExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ArticleSearchIndexLoader articleSearchIndexLoader;
+
+    @Autowired
+    private ArticleEventBroadcaster articleEventBroadcaster;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
     @Mock
     Principal principal;
 
@@ -116,6 +172,167 @@ class BlogApiControllerTest {
         assertThat(articles.get(0).getContent()).isEqualTo(content);
     }
 
+    @Test
+    @DisplayName("블로그 글 추가 api 테스트 - 긴 본문은 압축해서 article_body 에 저장하고, 글에는 excerpt 만 저장한다.")
+    void addLongArticleTest() throws Exception {
+        //given
+        final String url = "/api/articles";
+        final String content = "긴 본문입니다. ".repeat(1_000);
+        final String requestBody = objectMapper.writeValueAsString(ArticleRequest.builder()
+                                                                                 .title("제목")
+                                                                                 .content(content)
+                                                                                 .build());
+        when(principal.getName()).thenReturn(userEmail);
+
+        //when
+        mockMvc.perform(post(url)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .principal(principal)
+                       .content(requestBody))
+               .andExpect(status().isCreated());
+
+        //then
+        blogRepository.flush();
+        Article article = blogRepository.findAll().get(0);
+        byte[] stored = jdbcTemplate.queryForObject("SELECT content FROM article_body WHERE article_id = ?",
+                byte[].class, article.getId());
+
+        assertThat(article.getExcerpt()).isEqualTo(content.substring(0, Article.EXCERPT_LENGTH));
+        assertThat(stored.length).isLessThan(content.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(stored[0]).isEqualTo((byte) 0x1f); //gzip
+        assertThat(article.getContent()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("블로그 글 일괄등록 api 테스트 - 잘못된 항목은 건너뛰고 결과에 담는다.")
+    void importArticlesTest() throws Exception {
+        //given
+        final String url = "/api/articles/import";
+        final String requestBody = """
+                {"title": "제목1", "content": "내용1"}
+                {"title": "", "content": "내용2"}
+                {"title": "제목3", "content": "내용3"}
+                """;
+
+        when(principal.getName()).thenReturn(userEmail);
+        long seqBefore = eventSeq(articleEventBroadcaster.publish(ArticleEvent.deleted(0L)));
+
+        //when
+        ResultActions result = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .principal(principal)
+                .content(requestBody));
+
+        //then
+        result.andExpect(status().isOk())
+              .andExpect(jsonPath("$.imported").value(2))
+              .andExpect(jsonPath("$.failed").value(1))
+              .andExpect(jsonPath("$.completed").value(true))
+              .andExpect(jsonPath("$.errors[0].index").value(1));
+
+        List<Article> articles = blogRepository.findAll();
+        assertThat(articles).extracting(Article::getTitle)
+                            .containsExactlyInAnyOrder("제목1", "제목3");
+        assertThat(articles).extracting(Article::getAuthor)
+                            .containsOnly(userEmail);
+        //글마다 created 를 보내지 않고 resync 이벤트 하나만 발행한다. (다음 이벤트 순번이 2 차이)
+        long seqAfter = eventSeq(articleEventBroadcaster.publish(ArticleEvent.deleted(0L)));
+        assertThat(seqAfter - seqBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("블로그 글 일괄등록 api 테스트 - NDJSON 에 문법이 깨진 줄이 있어도 다음 줄부터 계속 등록한다.")
+    void importArticlesMalformedLineTest() throws Exception {
+        //given
+        final String url = "/api/articles/import";
+        final String requestBody = """
+                {"title": "제목1", "content": "내용1"}
+                {"title": "제목2", "content": 
+                {"title": "제목3", "content": "내용3"}
+                """;
+
+        when(principal.getName()).thenReturn(userEmail);
+
+        //when
+        ResultActions result = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .principal(principal)
+                .content(requestBody));
+
+        //then
+        result.andExpect(status().isOk())
+              .andExpect(jsonPath("$.imported").value(2))
+              .andExpect(jsonPath("$.failed").value(1))
+              .andExpect(jsonPath("$.completed").value(true))
+              .andExpect(jsonPath("$.errors[0].index").value(1));
+
+        assertThat(blogRepository.findAll()).extracting(Article::getTitle)
+                                            .containsExactlyInAnyOrder("제목1", "제목3");
+    }
+
+    @Test
+    @DisplayName("블로그 글 일괄등록 api 테스트 - JSON 배열에 문법이 깨진 항목이 있으면 그 전까지만 등록하고 completed = false 를 반환한다.")
+    void importArticlesMalformedArrayItemTest() throws Exception {
+        //given
+        final String url = "/api/articles/import";
+        final String requestBody = """
+                [
+                  {"title": "제목1, ]}", "content": "내용1", "meta": {"tags": ["a", "b"]}},
+                  {"title": "", "content": "내용2"},
+                  {"title": 제목3, "content": "내용3"},
+                  {"title": "제목4", "content": "내용4"}
+                ]
+                """;
+
+        when(principal.getName()).thenReturn(userEmail);
+
+        //when
+        ResultActions result = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .principal(principal)
+                .content(requestBody));
+
+        //then
+        //2번째 항목은 검증 실패 (다음 항목은 계속 읽음), 3번째 항목은 문법 오류라서 그 뒤는 읽지 않는다.
+        //(문자열 안의 , ] } 와 중첩된 객체, 배열은 항목 구분에 영향을 주지 않음)
+        result.andExpect(status().isOk())
+              .andExpect(jsonPath("$.imported").value(1))
+              .andExpect(jsonPath("$.failed").value(2))
+              .andExpect(jsonPath("$.completed").value(false))
+              .andExpect(jsonPath("$.errors[0].index").value(1))
+              .andExpect(jsonPath("$.errors[1].index").value(2));
+
+        assertThat(blogRepository.findAll()).extracting(Article::getTitle)
+                                            .containsExactly("제목1, ]}");
+    }
+
+    @Test
+    @DisplayName("블로그 글 일괄등록 api 테스트 - JSON 배열이 ] 없이 끝나면 그 전까지 등록하고 completed = false 를 반환한다.")
+    void importArticlesUnclosedArrayTest() throws Exception {
+        //given
+        final String url = "/api/articles/import";
+        final String requestBody = """
+                [
+                  {"title": "제목1", "content": "내용1"},
+                  {"title": "제목2", "content": "내용2"}
+                """;
+
+        when(principal.getName()).thenReturn(userEmail);
+
+        //when
+        ResultActions result = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .principal(principal)
+                .content(requestBody));
+
+        //then
+        result.andExpect(status().isOk())
+              .andExpect(jsonPath("$.imported").value(2))
+              .andExpect(jsonPath("$.failed").value(1))
+              .andExpect(jsonPath("$.completed").value(false))
+              .andExpect(jsonPath("$.errors[0].index").value(2));
+    }
+
     @Test
     @DisplayName("블로그전체 글 조회 api 테스트")
     void findAllArticlesTest() throws Exception {
@@ -125,13 +342,225 @@ class BlogApiControllerTest {
         final String content = "내용";
 
         createSavedArticle(title, content);
+        blogRepository.flush();
 
         //when & then
+        //목록 조회 1번 (본문은 읽지 않는다)
+        QueryCounter.assertMaxQueries(1, () -> mockMvc.perform(get(url)
+                                                              .accept(MediaType.APPLICATION_JSON)))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.articles[0].title").value(title))
+               .andExpect(jsonPath("$.articles[0].excerpt").value(content))
+               .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("블로그전체 글 조회 api 테스트 - cursor 로 다음 페이지 조회")
+    void findAllArticlesWithCursorTest() throws Exception {
+        //given
+        final String url = "/api/articles";
+        createSavedArticle("제목1", "내용1");
+        createSavedArticle("제목2", "내용2");
+        createSavedArticle("제목3", "내용3");
+
+        //when
+        String firstPage = mockMvc.perform(get(url)
+                                          .param("limit", "2")
+                                          .accept(MediaType.APPLICATION_JSON))
+                                  .andExpect(status().isOk())
+                                  .andExpect(jsonPath("$.articles.length()").value(2))
+                                  .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                                  .andReturn()
+                                  .getResponse()
+                                  .getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        //then
         mockMvc.perform(get(url)
+                       .param("limit", "2")
+                       .param("cursor", nextCursor)
                        .accept(MediaType.APPLICATION_JSON))
                .andExpect(status().isOk())
-               .andExpect(jsonPath("$[0].title").value(title))
-               .andExpect(jsonPath("$[0].content").value(content));
+               .andExpect(jsonPath("$.articles.length()").value(1))
+               .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("블로그전체 글 조회 api 테스트 - 잘못된 cursor 는 400")
+    void findAllArticlesWithInvalidCursorTest() throws Exception {
+        //given
+        final String url = "/api/articles";
+        final String invalidCursor = "not-a-cursor";
+
+        //when & then
+        mockMvc.perform(get(url)
+                       .param("cursor", invalidCursor)
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("작성자별 글 조회 api 테스트 - 해당 작성자의 글만 최신순으로 조회")
+    void findArticlesByAuthorTest() throws Exception {
+        //given
+        final String url = "/api/articles";
+        Article first = createSavedArticle("제목1", "내용1");
+        Article second = createSavedArticle("제목2", "내용2");
+        blogRepository.save(Article.builder()
+                                   .title("다른 작성자")
+                                   .content("내용")
+                                   .author("other@gmail.com")
+                                   .build());
+
+        //when & then
+        mockMvc.perform(get(url)
+                       .param("author", userEmail)
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.articles.length()").value(2))
+               .andExpect(jsonPath("$.articles[*].author").value(everyItem(is(userEmail))))
+               //createdAt, id 역순 : 나중에 쓴 글이 먼저
+               .andExpect(jsonPath("$.articles[0].id").value(second.getId()))
+               .andExpect(jsonPath("$.articles[0].title").value("제목2"))
+               .andExpect(jsonPath("$.articles[1].id").value(first.getId()))
+               .andExpect(jsonPath("$.articles[1].title").value("제목1"))
+               .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("작성자별 글 조회 실행계획 - (author, created_at, id) 인덱스로 범위 조회한다.")
+    void findArticlesByAuthorPlanTest() throws Exception {
+        //given
+        //Hibernate 가 findPageAfterByAuthor 로 실제 실행한 SQL, 파라미터를 그대로 EXPLAIN 한다.
+        //(setup 에서 저장한 유저 INSERT 가 조회 전 auto flush 로 같이 잡히지 않도록 먼저 flush)
+        blogRepository.flush();
+        List<QueryCounter.ExecutedQuery> queries = QueryCounter.captureQueries(jdbcTemplate.getDataSource(),
+                () -> blogRepository.findPageAfterByAuthor(userEmail, LocalDateTime.now(), Long.MAX_VALUE,
+                        PageRequest.of(0, BlogService.DEFAULT_PAGE_SIZE + 1)));
+        assertThat(queries).hasSize(1);
+        QueryCounter.ExecutedQuery query = queries.get(0);
+
+        //when
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query.sql(), String.class,
+                query.parameters().toArray());
+
+        //then
+        assertThat(plan).containsIgnoringCase(Article.AUTHOR_INDEX);
+    }
+
+    @Test
+    @DisplayName("블로그 전체 글 export api 테스트 - NDJSON 스트리밍 응답, 한줄에 글 하나")
+    void exportArticlesTest() throws Exception {
+        //given
+        final String url = "/api/articles/export";
+        //StreamingResponseBody 는 다른 스레드에서 실행되어 커밋된 글만 보이므로 별도 트랜잭션으로 저장하고 지운다.
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Long> ids = requiresNew.execute(status -> blogRepository.saveAll(List.of(
+                                                                             Article.builder().title("export1").content("내용1").author(userEmail).build(),
+                                                                             Article.builder().title("export2").content("내용2").author(userEmail).build()))
+                                                                     .stream()
+                                                                     .map(Article::getId)
+                                                                     .toList());
+        try {
+            //when
+            MvcResult mvcResult = mockMvc.perform(get(url))
+                                         .andExpect(request().asyncStarted())
+                                         .andReturn();
+            String body = mockMvc.perform(asyncDispatch(mvcResult))
+                                 .andExpect(status().isOk())
+                                 .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                                 .andReturn()
+                                 .getResponse()
+                                 .getContentAsString(StandardCharsets.UTF_8);
+
+            //then
+            //data.sql 로 들어간 글도 같이 내려오므로 저장한 글의 줄만 확인한다.
+            List<JsonNode> rows = new ArrayList<>();
+            for (String line : body.split("\n")) {
+                rows.add(objectMapper.readTree(line));
+            }
+            assertThat(rows).allMatch(row -> row.hasNonNull("id") && row.hasNonNull("title") && row.has("content"));
+            assertThat(rows).filteredOn(row -> ids.contains(row.get("id").asLong()))
+                            .extracting(row -> row.get("title").asText(), row -> row.get("content").asText())
+                            .containsExactly(tuple("export1", "내용1"), tuple("export2", "내용2"));
+        } finally {
+            requiresNew.executeWithoutResult(status -> blogRepository.deleteAllByIdInBatch(ids));
+        }
+    }
+
+    @Test
+    @DisplayName("api 인증 테스트 - 토큰 없이 /api/** 하위 url 을 요청하면 401")
+    void unauthenticatedApiTest() throws Exception {
+        //given
+        //시큐리티 필터를 적용한 MockMvc, 인증정보 없이 요청한다.
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(context)
+                                                .apply(springSecurity())
+                                                .build();
+        TestSecurityContextHolder.clearContext();
+
+        //when & then
+        for (String url : List.of("/api/articles", "/api/articles/export", "/api/articles/search?q=제목",
+                "/api/articles/trending", "/api/articles/events", "/api/article/1")) {
+            securedMockMvc.perform(get(url))
+                          .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    @DisplayName("api 인증 테스트 - SSE 구독만 access_token 쿼리 파라미터로 인증할 수 있다. (브라우저 EventSource)")
+    void queryTokenAuthenticationTest() throws Exception {
+        //given
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(context)
+                                                .apply(springSecurity())
+                                                .build();
+        TestSecurityContextHolder.clearContext();
+        String accessToken = JwtFactory.withDefaultValue().createToken(jwtProperties);
+
+        //when & then
+        securedMockMvc.perform(get("/api/articles/events").param("access_token", accessToken)
+                                                          .accept(MediaType.TEXT_EVENT_STREAM))
+                      .andExpect(request().asyncStarted());
+        securedMockMvc.perform(get("/api/articles").param("access_token", accessToken))
+                      .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("검색 색인 재생성 테스트 - DB 의 글(압축된 긴 본문 포함)로 색인을 다시 만들어 검색된다.")
+    void rebuildSearchIndexTest() throws Exception {
+        //given
+        Article savedArticle = createSavedArticle("제목", "캐시 적용기 ".repeat(300));
+        blogRepository.flush();
+        entityManager.clear();
+
+        //when
+        articleSearchIndexLoader.rebuild();
+
+        //then
+        //엔티티가 아닌 projection 으로 읽으므로 영속성 컨텍스트에 글이 올라가지 않는다.
+        assertThat(entityManager.contains(savedArticle)).isFalse();
+        mockMvc.perform(get("/api/articles/search").param("q", "적용기"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[0].id").value(savedArticle.getId()));
+    }
+
+    @Test
+    @DisplayName("블로그 전체 글 export 테스트 - 한줄에 글 하나씩 JSON 으로 쓴다.")
+    void exportToTest() throws Exception {
+        //given
+        createSavedArticle("제목1", "내용1");
+        createSavedArticle("제목2", "내용2");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        //StreamingResponseBody 는 다른 스레드에서 실행되어 테스트 트랜잭션의 데이터가 보이지 않으므로 서비스를 직접 호출한다.
+        articleExportService.exportTo(outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("title").asText()).isEqualTo("제목1");
+        assertThat(objectMapper.readTree(lines[1]).get("title").asText()).isEqualTo("제목2");
     }
 
     @Test
@@ -145,14 +574,72 @@ class BlogApiControllerTest {
         final String content = "내용";
 
         final Article savedArticle = createSavedArticle(title, content);
+        blogRepository.flush();
 
         //when
-        ResultActions result = mockMvc.perform(get(url, savedArticle.getId()));
+        //캐시 miss : 글, 본문 조회 1번 / 캐시 hit : 조회 없음
+        ResultActions result = QueryCounter.assertMaxQueries(1, () -> mockMvc.perform(get(url, savedArticle.getId())));
+        ResultActions cached = QueryCounter.assertMaxQueries(0, () -> mockMvc.perform(get(url, savedArticle.getId())));
 
         //then
         result.andExpect(status().isOk())
               .andExpect(jsonPath("$.title").value(title))
               .andExpect(jsonPath("$.content").value(content));
+        cached.andExpect(status().isOk())
+              .andExpect(jsonPath("$.title").value(title));
+    }
+
+    @Test
+    @DisplayName("블로그 단일글 조회 api 테스트 - ETag 가 같으면 304 를 반환한다.")
+    void findArticleNotModifiedTest() throws Exception {
+        //given
+        final String url = "/api/article/{id}";
+        final Article savedArticle = createSavedArticle("제목", "내용");
+
+        String etag = mockMvc.perform(get(url, savedArticle.getId()))
+                             .andExpect(status().isOk())
+                             .andExpect(header().exists(HttpHeaders.ETAG))
+                             .andReturn()
+                             .getResponse()
+                             .getHeader(HttpHeaders.ETAG);
+
+        //when
+        //ETag 비교는 캐시된 응답으로 하므로 쿼리가 실행되지 않는다.
+        ResultActions result = QueryCounter.assertMaxQueries(0, () -> mockMvc.perform(get(url, savedArticle.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)));
+
+        //then
+        result.andExpect(status().isNotModified())
+              .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("블로그 단일글 조회 api 테스트 - 조회수가 바뀌면 ETag 도 바뀌어서 200 을 반환한다.")
+    void findArticleViewsChangedTest() throws Exception {
+        //given
+        final String url = "/api/article/{id}";
+        final Article savedArticle = createSavedArticle("제목", "내용");
+        blogRepository.flush();
+
+        String etag = mockMvc.perform(get(url, savedArticle.getId()))
+                             .andExpect(status().isOk())
+                             .andReturn()
+                             .getResponse()
+                             .getHeader(HttpHeaders.ETAG);
+
+        //조회수 반영 (ArticleViewCounter flush) 후 캐시가 만료된 상황
+        jdbcTemplate.update("UPDATE article SET views = views + 3 WHERE id = ?", savedArticle.getId());
+        entityManager.clear();
+        cacheManager.getCache(CacheConfig.ARTICLE_CACHE).evict(savedArticle.getId());
+
+        //when
+        ResultActions result = mockMvc.perform(get(url, savedArticle.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        //then
+        result.andExpect(status().isOk())
+              .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+              .andExpect(jsonPath("$.views").value(3));
     }
 
     @Test
@@ -163,20 +650,25 @@ class BlogApiControllerTest {
         //pathVariable 형태의 URL도 아래와 mockMvc.perform() 에서 사용 가능
 
         Article savedArticle = createSavedArticle("제목", "내용");
+        blogRepository.flush();
 
         Long articleId = savedArticle.getId();
 
         when(principal.getName()).thenReturn(userEmail);
 
         //when
-        mockMvc.perform(delete(url, articleId)
-                .principal(principal));
+        //작성자 확인 + 글 삭제 DELETE 1번 (본문은 FK 의 ON DELETE CASCADE 로 같이 삭제)
+        QueryCounter.assertMaxQueries(1, () -> mockMvc.perform(delete(url, articleId)
+                                                              .principal(principal)))
+                    .andExpect(status().isOk());
 
         //then
         Article article = blogRepository.findById(articleId)
                                         .orElse(null);
 
         Assertions.assertEquals(article, null);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM article_body WHERE article_id = ?",
+                Long.class, articleId)).isZero();
     }
 
     @Test
@@ -184,6 +676,7 @@ class BlogApiControllerTest {
     void updateArticleTest() throws Exception {
         //given
         Article savedArticle = createSavedArticle("제목", "내용");
+        blogRepository.flush();
 
         final String url = "/api/articles/{id}";
         final String title = "수정된 제목";
@@ -192,16 +685,24 @@ class BlogApiControllerTest {
         final ArticleRequest request = ArticleRequest.builder()
                                                      .title(title)
                                                      .content(content)
+                                                     .version(savedArticle.getVersion())
                                                      .build();
 
 
         //when
-        ResultActions result = mockMvc.perform(put(url, savedArticle.getId())
+        //글 UPDATE 1번 + 본문 UPDATE 1번 (수정 후 다시 조회하지 않는다)
+        ResultActions result = QueryCounter.assertMaxQueries(2, () -> mockMvc.perform(put(url, savedArticle.getId())
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)));
+                .content(objectMapper.writeValueAsString(request))));
 
         //then
-        result.andExpect(status().isOk());
+        //응답은 요청 값과 올라간 version 으로 만든다.
+        result.andExpect(status().isOk())
+              .andExpect(jsonPath("$.id").value(savedArticle.getId()))
+              .andExpect(jsonPath("$.title").value(title))
+              .andExpect(jsonPath("$.content").value(content))
+              .andExpect(jsonPath("$.author").value(user.getUsername()))
+              .andExpect(jsonPath("$.version").value(savedArticle.getVersion() + 1));
 
         Article articles = blogRepository.findById(savedArticle.getId())
                                          .orElseThrow(() ->
@@ -211,6 +712,95 @@ class BlogApiControllerTest {
         assertThat(articles.getContent()).isEqualTo(content);
     }
 
+    @Test
+    @DisplayName("블로그 글 수정 api 테스트 - 긴 본문으로 수정하면 bulk UPDATE 파라미터도 압축해서 저장한다.")
+    void updateLongArticleTest() throws Exception {
+        //given
+        Article savedArticle = createSavedArticle("제목", "내용");
+        blogRepository.flush();
+        final String url = "/api/articles/{id}";
+        final String content = "수정된 긴 본문입니다. ".repeat(200);
+        assertThat(content.getBytes(StandardCharsets.UTF_8).length).isGreaterThanOrEqualTo(1_024);
+
+        //when
+        mockMvc.perform(put(url, savedArticle.getId())
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(new ArticleRequest("수정된 제목", content, savedArticle.getVersion()))))
+               .andExpect(status().isOk());
+
+        //then
+        byte[] stored = jdbcTemplate.queryForObject("SELECT content FROM article_body WHERE article_id = ?",
+                byte[].class, savedArticle.getId());
+        Article article = blogRepository.findWithBodyById(savedArticle.getId()).orElseThrow();
+
+        assertThat(stored.length).isLessThan(content.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(stored[0]).isEqualTo((byte) 0x1f); //gzip
+        assertThat(article.getContent()).isEqualTo(content);
+        assertThat(article.getExcerpt()).isEqualTo(content.substring(0, Article.EXCERPT_LENGTH));
+    }
+
+    @Test
+    @DisplayName("블로그 글 수정 api 테스트 - 조회 이후 다른 요청이 먼저 수정했으면(version 불일치) 실패한다.")
+    void updateArticleVersionConflictTest() throws Exception {
+        //given
+        Article savedArticle = createSavedArticle("제목", "내용");
+        final String url = "/api/articles/{id}";
+        final Long readVersion = savedArticle.getVersion();
+
+        mockMvc.perform(put(url, savedArticle.getId())
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(new ArticleRequest("수정1", "내용1", readVersion))))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.version").value(readVersion + 1));
+
+        //when & then
+        mockMvc.perform(put(url, savedArticle.getId())
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(new ArticleRequest("수정2", "내용2", readVersion))))
+               .andExpect(status().isConflict());
+        assertThat(blogRepository.findById(savedArticle.getId()).get().getTitle()).isEqualTo("수정1");
+    }
+
+    @Test
+    @DisplayName("블로그 글 수정 api 테스트 - version 이 없으면 400")
+    void updateArticleWithoutVersionTest() throws Exception {
+        //given
+        Article savedArticle = createSavedArticle("제목", "내용");
+
+        //when & then
+        mockMvc.perform(put("/api/articles/{id}", savedArticle.getId())
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(new ArticleRequest("수정", "내용", null))))
+               .andExpect(status().isBadRequest());
+        assertThat(blogRepository.findById(savedArticle.getId()).get().getTitle()).isEqualTo("제목");
+    }
+
+    @Test
+    @DisplayName("블로그 글 수정 api 테스트 - 없는 글은 404")
+    void updateArticleNotFoundTest() throws Exception {
+        //when & then
+        mockMvc.perform(put("/api/articles/{id}", Long.MAX_VALUE)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .content(objectMapper.writeValueAsString(new ArticleRequest("수정", "내용", 0L))))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("블로그 단일글 삭제 api 테스트 - 작성자가 아니면 삭제되지 않는다.")
+    void deleteArticleNotAuthorizedTest() throws Exception {
+        //given
+        Article savedArticle = createSavedArticle("제목", "내용");
+        when(principal.getName()).thenReturn("other@gmail.com");
+
+        //when
+        ResultActions result = mockMvc.perform(delete("/api/articles/{id}", savedArticle.getId())
+                                                       .principal(principal));
+
+        //then
+        result.andExpect(status().isForbidden());
+        assertThat(blogRepository.findById(savedArticle.getId())).isPresent();
+    }
+
     private Article createSavedArticle(String title, String content) {
         Article article = Article.builder()
                                  .title(title)
@@ -219,4 +809,9 @@ class BlogApiControllerTest {
                                  .build();
         return blogRepository.save(article);
     }
-}
\ No newline at end of file
+
+    //이벤트 id ("서버 구동 id-순번") 의 순번
+    private static long eventSeq(String eventId) {
+        return Long.parseLong(eventId.substring(eventId.lastIndexOf('-') + 1));
+    }
+}
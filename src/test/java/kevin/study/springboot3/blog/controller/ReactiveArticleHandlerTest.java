@@ -0,0 +1,122 @@
+package kevin.study.springboot3.blog.controller;
+
+import kevin.study.springboot3.config.ReactiveReadServer;
+import kevin.study.springboot3.config.jwt.JwtFactory;
+import kevin.study.springboot3.user.config.jwt.JwtProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리액티브 API 는 톰캣이 아닌 별도 Netty 서버(ReactiveReadServer)에서 서비스하므로 실제 포트로 요청한다.
+ * R2DBC 커넥션은 JPA 트랜잭션을 볼 수 없으므로 @Transactional 없이 data.sql 로 들어간 글(3건)로 확인한다.
+ */
+@SpringBootTest(properties = {"app.reactive.enabled=true", "app.reactive.port=0"})
+class ReactiveArticleHandlerTest {
+
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    private WebTestClient webTestClient;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                                     .baseUrl("http://localhost:" + reactiveReadServer.getPort())
+                                     .build();
+        token = JwtFactory.withDefaultValue().createToken(jwtProperties);
+    }
+
+    @Test
+    @DisplayName("리액티브 글 목록 api 테스트 - NDJSON 으로 한줄에 글 하나씩 내려준다.")
+    void streamArticlesTest() {
+        //given
+        final String url = "/api/reactive/articles";
+
+        //when
+        String body = webTestClient.get()
+                                   .uri(url)
+                                   .accept(MediaType.APPLICATION_NDJSON)
+                                   .headers(headers -> headers.setBearerAuth(token))
+                                   .exchange()
+                                   .expectStatus().isOk()
+                                   .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                                   .expectBody(String.class)
+                                   .returnResult()
+                                   .getResponseBody();
+
+        //then
+        assertThat(body.lines()).hasSize(3)
+                                .allMatch(line -> line.contains("\"excerpt\""));
+    }
+
+    @Test
+    @DisplayName("리액티브 글 단건 조회 api 테스트")
+    void findArticleTest() {
+        //given
+        final String url = "/api/reactive/article/{id}";
+
+        //when & then
+        webTestClient.get()
+                     .uri(url, 1L)
+                     .headers(headers -> headers.setBearerAuth(token))
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody()
+                     .jsonPath("$.id").isEqualTo(1)
+                     .jsonPath("$.title").isEqualTo("안녕하세요")
+                     .jsonPath("$.content").isEqualTo("반갑습니다");
+    }
+
+    @Test
+    @DisplayName("리액티브 글 단건 조회 api 테스트 - 없는 글은 404")
+    void findArticleNotFoundTest() {
+        //given
+        final String url = "/api/reactive/article/{id}";
+
+        //when & then
+        webTestClient.get()
+                     .uri(url, Long.MAX_VALUE)
+                     .headers(headers -> headers.setBearerAuth(token))
+                     .exchange()
+                     .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("리액티브 글 목록 api 테스트 - 잘못된 cursor 는 400")
+    void streamArticlesInvalidCursorTest() {
+        //given
+        final String url = "/api/reactive/articles?cursor={cursor}";
+
+        //when & then
+        webTestClient.get()
+                     .uri(url, "not-a-cursor")
+                     .headers(headers -> headers.setBearerAuth(token))
+                     .exchange()
+                     .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("리액티브 api 테스트 - 토큰이 없으면 401")
+    void unauthorizedTest() {
+        //given
+        final String url = "/api/reactive/articles";
+
+        //when & then
+        webTestClient.get()
+                     .uri(url)
+                     .exchange()
+                     .expectStatus().isUnauthorized();
+    }
+}
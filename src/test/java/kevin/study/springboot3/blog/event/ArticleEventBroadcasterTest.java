@@ -0,0 +1,176 @@
+package kevin.study.springboot3.blog.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser //api 는 인증이 필요하다.
+class ArticleEventBroadcasterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleEventBroadcaster articleEventBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("subscribe() : 구독 이후 발행된 이벤트를 받는다.")
+    void subscribeTest() throws Exception {
+        //given
+        MockHttpServletResponse response = subscribe(null);
+
+        //when
+        String eventId = articleEventBroadcaster.publish(ArticleEvent.created(1L, "제목", "user@gmail.com"));
+
+        //then
+        String body = awaitContains(response, "id:" + eventId);
+        assertThat(body).contains("event:created")
+                        .contains("\"title\":\"제목\"");
+    }
+
+    @Test
+    @DisplayName("subscribe() : Last-Event-ID 를 보내면 그 다음 이벤트부터 이어서 받는다.")
+    void resumeTest() throws Exception {
+        //given
+        String first = articleEventBroadcaster.publish(ArticleEvent.created(1L, "첫번째", "user@gmail.com"));
+        String second = articleEventBroadcaster.publish(ArticleEvent.deleted(1L));
+
+        //when
+        MockHttpServletResponse response = subscribe(first);
+
+        //then
+        String body = awaitContains(response, "id:" + second);
+        assertThat(body).contains("event:deleted")
+                        .doesNotContain("id:" + first + "\n");
+    }
+
+    @Test
+    @DisplayName("subscribe() : 알 수 없는 Last-Event-ID (재시작 전 id 등) 면 resync 이벤트를 보낸다.")
+    void resyncTest() throws Exception {
+        //when
+        MockHttpServletResponse response = subscribe("unknown-1");
+        articleEventBroadcaster.publish(ArticleEvent.created(1L, "제목", "user@gmail.com"));
+
+        //then
+        String body = awaitContains(response, "event:created");
+        assertThat(body).contains("event:" + ArticleEventBroadcaster.RESYNC_EVENT);
+    }
+
+    @Test
+    @DisplayName("heartbeat() : 쓰기가 write timeout 이상 막힌 구독자는 끊고, 다른 구독자에게는 계속 보낸다.")
+    void stalledSubscriberTest() throws Exception {
+        //given
+        //write timeout 100ms, 전송 스레드 2개
+        ArticleEventBroadcaster broadcaster = new ArticleEventBroadcaster(objectMapper, new SimpleMeterRegistry(),
+                16, 60_000, 100, 2, 16);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        try {
+            broadcaster.subscribe(stalled, null);
+            broadcaster.subscribe(healthy, null);
+            broadcaster.publish(ArticleEvent.created(1L, "제목", "user@gmail.com"));
+            await(() -> stalled.sends.get() == 1 && healthy.sends.get() == 1);
+            Thread.sleep(200);
+
+            //when
+            broadcaster.heartbeat();
+            broadcaster.publish(ArticleEvent.deleted(1L));
+
+            //then
+            assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+            await(() -> healthy.sends.get() == 3); //이벤트, heartbeat comment, 이벤트
+
+            release.countDown(); //막혀있던 쓰기가 끝나면 더 보내지 않고 emitter 를 완료한다.
+            await(() -> stalled.completed);
+            assertThat(stalled.sends.get()).isEqualTo(1);
+            assertThat(healthy.completed).isFalse();
+        } finally {
+            release.countDown();
+            broadcaster.shutdown();
+        }
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        var builder = get("/api/articles/events").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder)
+                      .andExpect(request().asyncStarted())
+                      .andReturn()
+                      .getResponse();
+    }
+
+    //전송은 다른 스레드에서 하므로 응답에 쓰여질 때까지 기다린다.
+    private static String awaitContains(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertThat(body).contains(expected);
+        return body;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    //보낸 횟수를 세는 emitter. release 가 있으면 풀릴 때까지 쓰기가 막힌다. (읽지 않는 클라이언트)
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final AtomicInteger sends = new AtomicInteger();
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+}
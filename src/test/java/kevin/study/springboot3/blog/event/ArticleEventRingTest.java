@@ -0,0 +1,29 @@
+package kevin.study.springboot3.blog.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleEventRingTest {
+
+    @Test
+    @DisplayName("get() : 버퍼 크기보다 많이 발행되면 오래된 이벤트는 덮어써져서 읽을 수 없다.")
+    void overwriteTest() {
+        //given
+        ArticleEventRing ring = new ArticleEventRing(3); //4 로 올림
+
+        //when
+        for (int i = 0; i < 6; i++) {
+            ring.publish(ArticleEvent.Type.CREATED, "{\"id\":" + i + "}");
+        }
+
+        //then
+        assertThat(ring.capacity()).isEqualTo(4);
+        assertThat(ring.lastSeq()).isEqualTo(6);
+        assertThat(ring.get(2)).isNull();
+        assertThat(ring.get(3).data()).isEqualTo("{\"id\":2}");
+        assertThat(ring.get(6).data()).isEqualTo("{\"id\":5}");
+        assertThat(ring.get(7)).isNull();
+    }
+}
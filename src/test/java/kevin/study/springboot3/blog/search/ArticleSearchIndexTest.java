@@ -0,0 +1,92 @@
+package kevin.study.springboot3.blog.search;
+
+import kevin.study.springboot3.blog.dto.ArticleSearchDocument;
+import kevin.study.springboot3.blog.dto.ArticleSearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleSearchIndexTest {
+
+    private ArticleSearchIndex articleSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        articleSearchIndex = new ArticleSearchIndex();
+        articleSearchIndex.index(1L, "스프링부트 시작하기", "user1", "스프링부트3 프로젝트를 만들어 봅니다.");
+        articleSearchIndex.index(2L, "JPA 기초", "user2", "엔티티와 리포지토리를 스프링에서 사용합니다.");
+        articleSearchIndex.index(3L, "안녕하세요", "user3", "반갑습니다");
+    }
+
+    @Test
+    @DisplayName("tokenize() : 글자가 이어진 구간을 2글자씩 겹쳐서 자른다.")
+    void tokenize() {
+        assertThat(BigramTokenizer.tokenize("스프링 A")).containsExactly("스프", "프링", "a");
+    }
+
+    @Test
+    @DisplayName("search() : 조사가 붙은 단어도 검색되고, 더 많이 일치하는 글이 먼저 나온다.")
+    void search() {
+        //when
+        List<ArticleSearchResponse> results = articleSearchIndex.search("스프링부트", 10);
+
+        //then
+        assertThat(results).extracting(ArticleSearchResponse::getId)
+                           .containsExactly(1L, 2L);
+        assertThat(results.get(0).getTitle()).isEqualTo("스프링부트 시작하기");
+    }
+
+    @Test
+    @DisplayName("search() : limit 개수만큼만 반환한다.")
+    void searchWithLimit() {
+        assertThat(articleSearchIndex.search("스프링", 1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("index(), remove() : 수정, 삭제된 글이 검색 결과에 반영된다.")
+    void updateAndRemove() {
+        //when
+        articleSearchIndex.index(3L, "안녕하세요", "user3", "스프링 공부중");
+        articleSearchIndex.remove(1L);
+
+        //then
+        assertThat(articleSearchIndex.search("스프링", 10)).extracting(ArticleSearchResponse::getId)
+                                                         .containsExactlyInAnyOrder(2L, 3L);
+        assertThat(articleSearchIndex.search("반갑", 10)).isEmpty();
+        assertThat(articleSearchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("rebuild() : 새로 만든 색인으로 교체하고, 만드는 중에 반영된 수정/삭제는 유지한다.")
+    void rebuild() {
+        //given
+        //DB 에서 읽은 글 (1, 2 번은 읽은 뒤에 각각 수정, 삭제됨)
+        List<ArticleSearchDocument> documents = List.of(
+                new ArticleSearchDocument(1L, "스프링부트 시작하기", "user1", "스프링부트3 프로젝트를 만들어 봅니다."),
+                new ArticleSearchDocument(2L, "JPA 기초", "user2", "엔티티와 리포지토리를 스프링에서 사용합니다."),
+                new ArticleSearchDocument(4L, "캐시", "user4", "Caffeine 캐시를 적용합니다."));
+
+        //when
+        articleSearchIndex.rebuild(() -> documents.stream()
+                                                  .peek(document -> {
+                                                      if (document.id() == 4L) {
+                                                          articleSearchIndex.index(1L, "코틀린 시작하기", "user1", "코틀린");
+                                                          articleSearchIndex.remove(2L);
+                                                      }
+                                                  }));
+
+        //then
+        //3 번은 DB 에 없으므로 빠지고, 1 번은 rebuild 중에 수정된 내용, 2 번은 삭제된 상태가 유지된다.
+        assertThat(articleSearchIndex.size()).isEqualTo(2);
+        assertThat(articleSearchIndex.search("스프링", 10)).isEmpty();
+        assertThat(articleSearchIndex.search("코틀린", 10)).extracting(ArticleSearchResponse::getId)
+                                                         .containsExactly(1L);
+        assertThat(articleSearchIndex.search("캐시", 10)).extracting(ArticleSearchResponse::getId)
+                                                        .containsExactly(4L);
+        assertThat(articleSearchIndex.findTitle(3L)).isEmpty();
+    }
+}
@@ -0,0 +1,61 @@
+package kevin.study.springboot3.blog.service;
+
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//테스트 중에 스케줄러가 flush 하지 않도록 주기를 길게 설정
+@SpringBootTest(properties = "app.views.flush-interval-ms=3600000")
+@Transactional
+class ArticleViewCounterTest {
+
+    @Autowired
+    private ArticleViewCounter articleViewCounter;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("조회수 flush 테스트 - 메모리에 모아둔 증가분을 글별로 한번에 DB 에 더한다.")
+    void flushTest() {
+        //given
+        Article first = blogRepository.saveAndFlush(createArticle("제목1"));
+        Article second = blogRepository.saveAndFlush(createArticle("제목2"));
+        for (int i = 0; i < 3; i++) {
+            articleViewCounter.increment(first.getId());
+        }
+        articleViewCounter.increment(second.getId());
+
+        //when
+        articleViewCounter.flush();
+        articleViewCounter.increment(first.getId());
+        articleViewCounter.flush();
+        articleViewCounter.flush(); //증가분이 없으면 UPDATE 하지 않는다.
+
+        //then
+        assertThat(views(first.getId())).isEqualTo(4);
+        assertThat(views(second.getId())).isEqualTo(1);
+    }
+
+    private long views(Long id) {
+        return jdbcTemplate.queryForObject("SELECT views FROM article WHERE id = ?", Long.class, id);
+    }
+
+    private Article createArticle(String title) {
+        return Article.builder()
+                      .title(title)
+                      .content("내용")
+                      .author("user")
+                      .build();
+    }
+}
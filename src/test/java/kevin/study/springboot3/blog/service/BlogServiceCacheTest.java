@@ -0,0 +1,103 @@
+package kevin.study.springboot3.blog.service;
+
+import kevin.study.springboot3.blog.domain.Article;
+import kevin.study.springboot3.blog.dto.ArticleRequest;
+import kevin.study.springboot3.blog.dto.ArticleResponse;
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import kevin.study.springboot3.config.CacheConfig;
+import kevin.study.springboot3.config.datasource.QueryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//캐시 evict 는 트랜잭션 커밋 이후에 실행되므로 (CacheConfig) 테스트 전체를 트랜잭션으로 묶지 않는다.
+@SpringBootTest(properties = "app.query-count.enabled=true") //QueryCounter 사용
+class BlogServiceCacheTest {
+    private static final String AUTHOR = "cache@gmail.com";
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(CacheConfig.ARTICLE_CACHE);
+        cache.clear();
+        SecurityContextHolder.getContext()
+                             .setAuthentication(new UsernamePasswordAuthenticationToken(AUTHOR, null, List.of()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        blogRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("findById() : 두번째 조회부터는 DB 를 조회하지 않고 캐시에서 가져온다.")
+    void findByIdTest() throws Exception {
+        //given
+        Article saved = blogService.save(new ArticleRequest("제목", "내용", null), AUTHOR);
+        blogService.findById(saved.getId());
+
+        //when
+        ArticleResponse cached = QueryCounter.assertMaxQueries(0, () -> blogService.findById(saved.getId()));
+
+        //then
+        assertThat(cached.getTitle()).isEqualTo("제목");
+        assertThat(cached.getContent()).isEqualTo("내용");
+        assertThat(cache.get(saved.getId())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("update() : 수정하면 캐시에서 지우고, 다음 조회는 수정된 글을 DB 에서 다시 읽는다.")
+    void updateEvictTest() throws Exception {
+        //given
+        Article saved = blogService.save(new ArticleRequest("제목", "내용", null), AUTHOR);
+        ArticleResponse before = blogService.findById(saved.getId());
+        assertThat(cache.get(saved.getId())).isNotNull();
+
+        //when
+        blogService.update(saved.getId(), new ArticleRequest("수정된 제목", "수정된 내용", before.getVersion()));
+
+        //then
+        assertThat(cache.get(saved.getId())).isNull();
+        ArticleResponse after = blogService.findById(saved.getId());
+        assertThat(after.getTitle()).isEqualTo("수정된 제목");
+        assertThat(after.getContent()).isEqualTo("수정된 내용");
+        assertThat(cache.get(saved.getId())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("delete() : 삭제하면 캐시에서 지운다.")
+    void deleteEvictTest() {
+        //given
+        Article saved = blogService.save(new ArticleRequest("제목", "내용", null), AUTHOR);
+        blogService.findById(saved.getId());
+        assertThat(cache.get(saved.getId())).isNotNull();
+
+        //when
+        blogService.delete(saved.getId(), () -> AUTHOR);
+
+        //then
+        assertThat(cache.get(saved.getId())).isNull();
+    }
+}
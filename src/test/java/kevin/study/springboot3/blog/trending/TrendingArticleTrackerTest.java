@@ -0,0 +1,83 @@
+package kevin.study.springboot3.blog.trending;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingArticleTrackerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private TrendingArticleTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new TrendingArticleTracker(Duration.ofMinutes(10), 3, clock::get);
+    }
+
+    @Test
+    @DisplayName("top() : 조회수가 많은 순서로 반환하고, 후보 수(capacity)를 넘으면 적게 읽힌 글은 빠진다.")
+    void top() {
+        //given
+        record(1L, 5);
+        record(2L, 10);
+        record(3L, 1);
+        record(4L, 3);
+
+        //when
+        List<TrendingArticleTracker.TrendingArticle> top = tracker.top(10);
+
+        //then
+        assertThat(top).extracting(TrendingArticleTracker.TrendingArticle::id)
+                       .containsExactly(2L, 1L, 4L);
+        assertThat(top.get(0).score()).isCloseTo(10, within(0.01));
+    }
+
+    @Test
+    @DisplayName("top() : half-life 가 지나면 예전 조회의 점수는 절반이 되어 최근 조회가 앞선다.")
+    void decay() {
+        //given
+        record(1L, 10);
+        clock.addAndGet(Duration.ofMinutes(20).toNanos());
+        record(2L, 4);
+
+        //when
+        List<TrendingArticleTracker.TrendingArticle> top = tracker.top(10);
+
+        //then
+        assertThat(top).extracting(TrendingArticleTracker.TrendingArticle::id)
+                       .containsExactly(2L, 1L);
+        assertThat(top.get(1).score()).isCloseTo(2.5, within(0.01));
+    }
+
+    @Test
+    @DisplayName("record() : 가중치가 커지면 landmark 를 옮겨도 순위와 점수는 유지된다.")
+    void rescale() {
+        //given
+        record(1L, 2);
+        record(2L, 1);
+
+        //when - half-life 의 400배 (가중치 2^400 > 1e100)
+        clock.addAndGet(Duration.ofMinutes(10).toNanos() * 400);
+        record(2L, 2);
+
+        //then
+        List<TrendingArticleTracker.TrendingArticle> top = tracker.top(10);
+        assertThat(top).extracting(TrendingArticleTracker.TrendingArticle::id)
+                       .containsExactly(2L, 1L);
+        assertThat(top.get(0).score()).isCloseTo(2, within(0.01));
+    }
+
+    private void record(Long id, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(id);
+        }
+    }
+}
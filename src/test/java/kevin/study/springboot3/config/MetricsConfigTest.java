@@ -0,0 +1,97 @@
+package kevin.study.springboot3.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//테스트에서는 기본적으로 메트릭 export 가 꺼져있으므로 (SimpleMeterRegistry) prometheus registry 를 켠다.
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("prometheus 엔드포인트 : 핸들러별 응답시간 histogram, 토큰 필터 메트릭을 노출한다.")
+    void prometheusTest() throws Exception {
+        //given
+        mockMvc.perform(get("/api/articles/trending")
+                       .header("Authorization", "Bearer not-a-jwt"))
+               .andExpect(status().isUnauthorized());
+
+        //when & then
+        mockMvc.perform(get("/actuator/prometheus")
+                       .with(user("monitor@gmail.com")))
+               .andExpect(status().isOk())
+               .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+               .andExpect(content().string(containsString("app_security_token_filter_seconds_bucket")))
+               .andExpect(content().string(containsString("app_security_token_validation_total{application=\"springboot3\",result=\"malformed\"")))
+               .andExpect(content().string(containsString("app_request_statements_count")));
+    }
+
+    @Test
+    @DisplayName("actuator : health 만 인증없이 볼 수 있고 메트릭 등 나머지 엔드포인트는 401")
+    void actuatorSecurityTest() throws Exception {
+        //when & then
+        mockMvc.perform(get("/actuator/health"))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics"))
+               .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/info"))
+               .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("RequestStatisticsFilter : 요청 1번의 statement, 엔티티 로드, flush 수를 핸들러별로 기록한다.")
+    void requestStatisticsTest() throws Exception {
+        //given
+        //목록 화면 : 요약 조회 SELECT 1번 (엔티티가 아닌 projection), 읽기 전용이라 flush 없음
+        double statements = total(RequestStatisticsFilter.STATEMENTS);
+        double entityLoads = total(RequestStatisticsFilter.ENTITY_LOADS);
+        double flushes = total(RequestStatisticsFilter.FLUSHES);
+        long count = summary(RequestStatisticsFilter.STATEMENTS).map(DistributionSummary::count).orElse(0L);
+
+        //when
+        mockMvc.perform(get("/articles")
+                       .accept(MediaType.TEXT_HTML))
+               .andExpect(status().isOk());
+
+        //then
+        assertThat(summary(RequestStatisticsFilter.STATEMENTS).map(DistributionSummary::count)).contains(count + 1);
+        assertThat(total(RequestStatisticsFilter.STATEMENTS) - statements).isEqualTo(1);
+        assertThat(total(RequestStatisticsFilter.ENTITY_LOADS) - entityLoads).isZero();
+        assertThat(total(RequestStatisticsFilter.FLUSHES) - flushes).isZero();
+    }
+
+    private double total(String name) {
+        return summary(name).map(DistributionSummary::totalAmount).orElse(0.0);
+    }
+
+    private Optional<DistributionSummary> summary(String name) {
+        return Optional.ofNullable(meterRegistry.find(name)
+                                                .tag("uri", "/articles")
+                                                .summary());
+    }
+}
@@ -0,0 +1,69 @@
+package kevin.study.springboot3.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticResourceConfigTest {
+    private static final Pattern VERSIONED_SCRIPT = Pattern.compile("/js/article-[0-9a-f]{32}\\.js");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("정적 리소스 테스트 - 템플릿은 버전 url 을 쓰고, 버전 url 은 압축 파일 + 장기 캐시로 내려준다.")
+    void versionedResourceTest() throws Exception {
+        //given
+        String page = mockMvc.perform(get("/new-article"))
+                             .andExpect(status().isOk())
+                             .andReturn()
+                             .getResponse()
+                             .getContentAsString();
+        Matcher matcher = VERSIONED_SCRIPT.matcher(page);
+        assertThat(matcher.find()).isTrue();
+
+        //when & then
+        mockMvc.perform(get(matcher.group())
+                       .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+               .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+               .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+               .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    @DisplayName("정적 리소스 테스트 - 버전이 없는 url 은 장기 캐시하지 않고 ETag 로 재검증한다.")
+    void unversionedResourceTest() throws Exception {
+        //given
+        String etag = mockMvc.perform(get("/js/article.js"))
+                             .andExpect(status().isOk())
+                             .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                             .andExpect(header().exists(HttpHeaders.ETAG))
+                             .andReturn()
+                             .getResponse()
+                             .getHeader(HttpHeaders.ETAG);
+
+        //when & then
+        mockMvc.perform(get("/js/article.js")
+                       .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified());
+        mockMvc.perform(get("/img/google.png"))
+               .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+}
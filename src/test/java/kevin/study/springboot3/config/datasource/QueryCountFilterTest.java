@@ -0,0 +1,31 @@
+package kevin.study.springboot3.config.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.query-count.enabled=true") //QueryCounter, 쿼리 수 헤더 사용
+@AutoConfigureMockMvc
+class QueryCountFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("QueryCountFilter : 요청 처리 중 실행된 쿼리 수와 시간을 응답 헤더로 내려준다.")
+    void queryCountHeaderTest() throws Exception {
+        //when & then
+        mockMvc.perform(get("/articles")
+                       .accept(MediaType.TEXT_HTML))
+               .andExpect(status().isOk())
+               .andExpect(header().string(QueryCountFilter.QUERY_COUNT_HEADER, "1"))
+               .andExpect(header().exists(QueryCountFilter.QUERY_TIME_HEADER));
+    }
+}
@@ -0,0 +1,103 @@
+package kevin.study.springboot3.config.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 테스트용 쿼리 수 검사 (QueryCountConfig 의 DataSource proxy 가 센 값을 사용)
+ * 요청 처리에 쓰이는 쿼리 수가 늘어나면 (N+1 등) 테스트가 실패하도록 endpoint 별 최대값을 정해둔다.
+ *
+ * QueryCounter.assertMaxQueries(1, () -> mockMvc.perform(get(url)))
+ *             .andExpect(status().isOk());
+ *
+ * 테스트 트랜잭션 안에서 저장만 하고 flush 하지 않은 엔티티는 요청 처리 중에 INSERT 되어 같이 세어지므로
+ * given 단계에서 미리 flush 해둔다.
+ *
+ * 실행된 SQL 자체가 필요하면 (실행계획 확인 등) captureQueries 로 SQL 과 바인딩된 파라미터를 가져온다.
+ *
+ * QueryCountConfig 는 기본으로 꺼져 있으므로 사용하는 테스트는 app.query-count.enabled=true 로 실행한다.
+ * (@SpringBootTest(properties = "app.query-count.enabled=true"), 꺼져 있으면 항상 0 으로 세어진다)
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    public static <T> T assertMaxQueries(long max, Action<T> action) throws Exception {
+        QueryCountHolder.clear();
+        T result = action.run();
+        QueryCount queryCount = QueryCountHolder.getGrandTotal();
+        assertThat(queryCount.getTotal())
+                .as("executed queries (select=%d, insert=%d, update=%d, delete=%d, other=%d)",
+                        queryCount.getSelect(), queryCount.getInsert(), queryCount.getUpdate(),
+                        queryCount.getDelete(), queryCount.getOther())
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+
+    //action 을 실행하는 동안 현재 스레드에서 실행된 SQL 과 바인딩된 파라미터 (실행 순서대로)
+    public static List<ExecutedQuery> captureQueries(DataSource dataSource, Action<?> action) throws Exception {
+        assertThat(dataSource).as("app.query-count.enabled=true").isInstanceOf(ProxyDataSource.class);
+        ChainListener chain = ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener();
+        //다른 스레드가 쿼리를 실행하는 중에 listener 를 추가, 제거해도 되도록 복사본으로 바꿔둔다.
+        if (!(chain.getListeners() instanceof CopyOnWriteArrayList)) {
+            chain.setListeners(new CopyOnWriteArrayList<>(chain.getListeners()));
+        }
+
+        Thread caller = Thread.currentThread();
+        List<ExecutedQuery> queries = new CopyOnWriteArrayList<>();
+        QueryExecutionListener listener = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                if (Thread.currentThread() == caller) {
+                    queryInfoList.forEach(queryInfo -> queries.add(ExecutedQuery.of(queryInfo)));
+                }
+            }
+        };
+        chain.getListeners().add(listener);
+        try {
+            action.run();
+        } finally {
+            chain.getListeners().remove(listener);
+        }
+        return queries;
+    }
+
+    //실행된 SQL 과 파라미터 (batch 는 첫번째 파라미터 묶음, 파라미터 index 순서)
+    public record ExecutedQuery(String sql, List<Object> parameters) {
+        private static ExecutedQuery of(QueryInfo queryInfo) {
+            List<Object> parameters = queryInfo.getParametersList()
+                                               .stream()
+                                               .findFirst()
+                                               .orElse(List.of())
+                                               .stream()
+                                               .map(ParameterSetOperation::getArgs)
+                                               .sorted(Comparator.comparingInt(args -> (Integer) args[0]))
+                                               .map(args -> args[1])
+                                               .toList();
+            return new ExecutedQuery(queryInfo.getQuery(), parameters);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+package kevin.study.springboot3.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kevin.study.springboot3.blog.repository.BlogRepository;
+import kevin.study.springboot3.blog.service.BlogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 는 복제가 안되므로 replica 에 primary 와 같은 인메모리 DB 를 지정하고 (커넥션 풀은 별도)
+ * 어느 쪽으로 라우팅 되었는지는 메트릭으로 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "app.datasource.replicas[0].url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].username=sa",
+        "app.datasource.read-your-writes-window=1m"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica, 쓰기 트랜잭션은 primary 로 라우팅한다.")
+    void routeByReadOnly() {
+        //given
+        double replicaBefore = count("replica-0", "read-only");
+        double primaryBefore = count(ReplicaRouter.PRIMARY, "read-write");
+
+        //when
+        blogService.findPage(null, null);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> blogRepository.count());
+
+        //then
+        assertThat(count("replica-0", "read-only")).isEqualTo(replicaBefore + 1);
+        assertThat(count(ReplicaRouter.PRIMARY, "read-write")).isEqualTo(primaryBefore + 1);
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션을 실행한 유저의 읽기는 read-your-writes window 동안 primary 로 라우팅한다.")
+    void readYourWrites() {
+        //given
+        SecurityContextHolder.getContext()
+                             .setAuthentication(new UsernamePasswordAuthenticationToken("writer", null,
+                                     AuthorityUtils.NO_AUTHORITIES));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> blogRepository.count());
+        double replicaBefore = count("replica-0", "read-only");
+        double readYourWritesBefore = count(ReplicaRouter.PRIMARY, "read-your-writes");
+
+        //when
+        blogService.findPage(null, null);
+
+        //then
+        assertThat(count(ReplicaRouter.PRIMARY, "read-your-writes")).isEqualTo(readYourWritesBefore + 1);
+        assertThat(count("replica-0", "read-only")).isEqualTo(replicaBefore);
+    }
+
+    private double count(String target, String reason) {
+        return meterRegistry.get("app.datasource.route")
+                            .tag("target", target)
+                            .tag("reason", reason)
+                            .counter()
+                            .count();
+    }
+}
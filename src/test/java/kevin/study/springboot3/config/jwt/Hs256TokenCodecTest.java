@@ -0,0 +1,115 @@
+package kevin.study.springboot3.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.impl.TextCodec;
+import kevin.study.springboot3.user.config.jwt.Hs256TokenCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Hs256TokenCodecTest {
+    private static final String ISSUER = "test@gmail.com";
+    private static final String SECRET_KEY = "study-springboot";
+
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(TextCodec.BASE64.decode(SECRET_KEY));
+
+    @Test
+    @DisplayName("encode() : jjwt 로 만든 토큰과 같은 토큰을 만든다.")
+    void encodeTest() {
+        //given
+        Date issuedAt = new Date();
+        Date expiration = new Date(issuedAt.getTime() + Duration.ofDays(14).toMillis());
+        String subject = "user\"\\\n\u0001한글@gmail.com";
+
+        //when
+        String token = codec.encode(ISSUER, issuedAt, expiration, subject, 1L);
+
+        //then
+        String expected = Jwts.builder()
+                              .setHeaderParam(Header.TYPE, Header.JWT_TYPE)
+                              .setIssuer(ISSUER)
+                              .setIssuedAt(issuedAt)
+                              .setExpiration(expiration)
+                              .setSubject(subject)
+                              .claim("id", 1L)
+                              .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                              .compact();
+        assertThat(token).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("decode() : jjwt 로 만든 토큰의 클레임을 읽는다.")
+    void decodeTest() {
+        //given
+        Date expiration = new Date(System.currentTimeMillis() + Duration.ofDays(1).toMillis());
+        String token = Jwts.builder()
+                           .setHeaderParam(Header.TYPE, Header.JWT_TYPE)
+                           .setIssuer(ISSUER)
+                           .setIssuedAt(new Date())
+                           .setExpiration(expiration)
+                           .setSubject("user@gmail.com")
+                           .claim("id", 3_000_000_000L)
+                           .claim("admin", false)
+                           .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                           .compact();
+
+        //when
+        Claims claims = codec.decode(token, System.currentTimeMillis());
+
+        //then
+        assertThat(claims.getIssuer()).isEqualTo(ISSUER);
+        assertThat(claims.getSubject()).isEqualTo("user@gmail.com");
+        assertThat(claims.getExpiration().getTime()).isEqualTo(expiration.getTime() / 1000 * 1000);
+        assertThat(claims.get("id", Long.class)).isEqualTo(3_000_000_000L);
+        assertThat(claims.get("admin")).isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("decode() : 서명이 다르거나 만료, 형식이 잘못된 토큰은 jjwt 와 같은 예외로 실패한다.")
+    void decodeFailureTest() {
+        //given
+        long now = System.currentTimeMillis();
+        String token = codec.encode(ISSUER, new Date(now), new Date(now + Duration.ofHours(1).toMillis()), "user@gmail.com", 1L);
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + encode("{\"sub\":\"admin@gmail.com\",\"id\":1}") + "." + parts[2];
+        String algNone = encode("{\"alg\":\"none\"}") + "." + parts[1] + "." + parts[2];
+        String nested = signed("{\"sub\":{\"name\":\"user\"}}");
+
+        //when, then
+        assertThatThrownBy(() -> codec.decode(tampered, now)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> codec.decode(token, now + Duration.ofHours(2).toMillis()))
+                .isInstanceOf(ExpiredJwtException.class);
+        assertThatThrownBy(() -> codec.decode(algNone, now)).isInstanceOf(UnsupportedJwtException.class);
+        assertThatThrownBy(() -> codec.decode(parts[0] + "." + parts[1] + ".", now))
+                .isInstanceOf(UnsupportedJwtException.class);
+        assertThatThrownBy(() -> codec.decode(nested, now)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> codec.decode("not-a-token", now)).isInstanceOf(MalformedJwtException.class);
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //jjwt 로 payload 원문 그대로 서명한 토큰
+    private static String signed(String payload) {
+        return Jwts.builder()
+                   .setHeaderParam(Header.TYPE, Header.JWT_TYPE)
+                   .setPayload(payload)
+                   .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                   .compact();
+    }
+}
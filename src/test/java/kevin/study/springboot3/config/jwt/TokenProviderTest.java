@@ -3,6 +3,8 @@ package kevin.study.springboot3.config.jwt;
 import io.jsonwebtoken.Jwts;
 import kevin.study.springboot3.user.config.jwt.JwtProperties;
 import kevin.study.springboot3.user.config.jwt.TokenProvider;
+import kevin.study.springboot3.user.config.jwt.TokenValidationResult;
+import kevin.study.springboot3.user.config.jwt.TokenVerification;
 import kevin.study.springboot3.user.domain.User;
 import kevin.study.springboot3.user.repository.UserRepository;
 import org.junit.jupiter.api.Assertions;
@@ -71,6 +73,50 @@ public class TokenProviderTest {
     }
 
 
+    @Test
+    @DisplayName("validate() 검증 : 토큰 검증 실패시 실패 사유를 반환한다.")
+    void validate() {
+        //given
+        String expired = JwtFactory.builder()
+                                   .expiration(new Date(new Date().getTime() - Duration.ofDays(1).toMillis()))
+                                   .build()
+                                   .createToken(jwtProperties);
+        JwtProperties otherKey = new JwtProperties();
+        otherKey.setIssuer(jwtProperties.getIssuer());
+        otherKey.setSecretKey(jwtProperties.getSecretKey() + "-other");
+        String badSignature = JwtFactory.withDefaultValue()
+                                        .createToken(otherKey);
+
+        //when & then
+        Assertions.assertEquals(TokenValidationResult.VALID,
+                tokenProvider.validate(JwtFactory.withDefaultValue().createToken(jwtProperties)));
+        Assertions.assertEquals(TokenValidationResult.EXPIRED, tokenProvider.validate(expired));
+        Assertions.assertEquals(TokenValidationResult.BAD_SIGNATURE, tokenProvider.validate(badSignature));
+        Assertions.assertEquals(TokenValidationResult.MALFORMED, tokenProvider.validate("not-a-jwt"));
+        Assertions.assertEquals(TokenValidationResult.MISSING, tokenProvider.validate(null));
+    }
+
+    @Test
+    @DisplayName("verify() 검증 : 한번 검증한 토큰은 다시 파싱하지 않고 캐시된 클레임으로 인증정보를 만든다.")
+    void verify() {
+        //given
+        String userEmail = "verify@email.com";
+        String token = JwtFactory.builder()
+                                 .subject(userEmail)
+                                 .build()
+                                 .createToken(jwtProperties);
+
+        //when
+        TokenVerification first = tokenProvider.verify(token);
+        TokenVerification second = tokenProvider.verify(token);
+
+        //then
+        Assertions.assertTrue(first.isValid());
+        Assertions.assertEquals(userEmail, ((UserDetails) second.authentication().getPrincipal()).getUsername());
+        Assertions.assertSame(first.claims(), second.claims(), "두번째 검증은 캐시된 클레임을 사용해야 한다.");
+        Assertions.assertNotSame(first.authentication(), second.authentication(), "인증정보는 요청마다 새로 만들어야 한다.");
+    }
+
     @Test
     @DisplayName("getAuthentication() 검증 : 토큰기반으로 인증정보를 가져올 수 있다.")
     void getAuthentication() {
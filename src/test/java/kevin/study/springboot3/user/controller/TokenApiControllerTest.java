@@ -1,6 +1,7 @@
 package kevin.study.springboot3.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import kevin.study.springboot3.config.datasource.QueryCounter;
 import kevin.study.springboot3.config.jwt.JwtFactory;
 import kevin.study.springboot3.user.config.jwt.JwtProperties;
 import kevin.study.springboot3.user.domain.RefreshToken;
@@ -26,7 +27,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.query-count.enabled=true") //QueryCounter, 쿼리 수 헤더 사용
 @AutoConfigureMockMvc
 @Transactional
 class TokenApiControllerTest {
@@ -71,16 +72,17 @@ class TokenApiControllerTest {
                                         .build()
                                         .createToken(jwtProperties);
 
-        refreshTokenRepository.save(new RefreshToken(testUser.getId(), refreshToken));
+        refreshTokenRepository.saveAndFlush(new RefreshToken(testUser.getId(), refreshToken));
 
         CreateAccessTokenRequest request = new CreateAccessTokenRequest(refreshToken);
 
 
         //when
         //then
-        mockMvc.perform(post(url)
-                       .contentType(MediaType.APPLICATION_JSON)
-                       .content(objectMapper.writeValueAsString(request)))
+        //리프레시 토큰 조회 + 유저 조회
+        QueryCounter.assertMaxQueries(2, () -> mockMvc.perform(post(url)
+                                                              .contentType(MediaType.APPLICATION_JSON)
+                                                              .content(objectMapper.writeValueAsString(request))))
                .andExpect(status().isCreated())
                .andExpect(jsonPath("$.accessToken").isNotEmpty());
     }
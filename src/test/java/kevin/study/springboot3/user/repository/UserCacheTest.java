@@ -0,0 +1,109 @@
+package kevin.study.springboot3.user.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import kevin.study.springboot3.user.domain.RefreshToken;
+import kevin.study.springboot3.user.domain.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//2차 캐시는 커밋된 뒤에 채워지므로 테스트 전체를 트랜잭션으로 묶지 않는다.
+@SpringBootTest
+class UserCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("findByEmail() : 두번째 조회부터는 DB 를 조회하지 않고 캐시에서 가져오고, 수정하면 캐시도 갱신된다.")
+    void findByEmailTest() {
+        //given
+        userRepository.save(User.builder()
+                                .email("cache@naver.com")
+                                .password("test")
+                                .nickname("before")
+                                .build());
+        userRepository.findByEmail("cache@naver.com");
+        statistics.clear();
+
+        //when
+        User cached = userRepository.findByEmail("cache@naver.com")
+                                    .orElseThrow();
+
+        //then
+        assertThat(cached.getNickname()).isEqualTo("before");
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(cached.getId())
+                                                                         .orElseThrow()
+                                                                         .update("after"));
+        statistics.clear();
+        User updated = userRepository.findByEmail("cache@naver.com")
+                                     .orElseThrow();
+
+        //then
+        assertThat(updated.getNickname()).isEqualTo("after");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findByRefreshToken() : 쿼리 캐시로 조회하고, 토큰이 바뀌면 이전 쿼리 결과는 무효화된다.")
+    void findByRefreshTokenTest() {
+        //given
+        RefreshToken saved = refreshTokenRepository.save(new RefreshToken(1L, "old-token"));
+        refreshTokenRepository.findByRefreshToken("old-token");
+        statistics.clear();
+
+        //when
+        RefreshToken cached = refreshTokenRepository.findByRefreshToken("old-token")
+                                                    .orElseThrow();
+
+        //then
+        assertThat(cached.getId()).isEqualTo(saved.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.findById(saved.getId())
+                                                                                 .orElseThrow()
+                                                                                 .update("new-token"));
+
+        //then
+        assertThat(refreshTokenRepository.findByRefreshToken("old-token")).isEmpty();
+        assertThat(refreshTokenRepository.findByUserId(1L)
+                                         .orElseThrow()
+                                         .getRefreshToken()).isEqualTo("new-token");
+    }
+}